@@ -0,0 +1,399 @@
+package generators;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.Camera;
+import scene.Scene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Procedural scenes for benchmarks and scaling tests.<br>
+ * Every scene is generated from a seed, so the same parameters always give the same
+ * scene, and its size is a parameter - from a hundred to millions of primitives -
+ * instead of a model file. The scenes are in a cube of {@link #SIZE} around the origin,
+ * seen by the camera of {@link #getCameraBuilder()}.<br>
+ * The scenes are created with the conservative bounding regions turned on; the caller
+ * may pack their triangles ({@link Scene#setFloatPrecision()}, {@link Scene#setOffHeap()})
+ * and then builds their hierarchy by {@link Scene#setBVH()}. The bounding regions are a
+ * global switch ({@link Scene#setCBR()}), so generating a scene turns them on for all the
+ * geometries created afterwards in the process as well.
+ */
+public final class SceneGenerator {
+    /**
+     * Half of the side of the cube of the scenes
+     */
+    public static final double SIZE = 100;
+    /**
+     * Amount of triangles packed into a single mesh by {@link #triangleSoup(int, long, boolean)}
+     */
+    private static final int MESH_SIZE = 1 << 16;
+    /**
+     * Amount of the colors of the triangles of {@link #triangleSoup(int, long, boolean)}
+     */
+    private static final int SOUP_COLORS = 64;
+
+    /**
+     * Variants of the Cornell box
+     */
+    public enum CornellBox {
+        /** Two diffuse spheres */
+        DIFFUSE,
+        /** A mirror sphere and a glass sphere */
+        MIRROR_GLASS,
+        /** A glossy sphere and a blurry glass sphere */
+        GLOSSY_BLURRY,
+        /** Two diffuse spheres lit by an area light instead of a point light */
+        AREA_LIGHT
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SceneGenerator() {
+    }
+
+    /**
+     * Creates a camera builder which sees the whole cube of the scenes, without image writer and ray tracer
+     *
+     * @return the camera builder
+     */
+    public static Camera.Builder getCameraBuilder() {
+        return Camera.getBuilder()
+                .setLocation(new Point(0, 0, SIZE * 10))
+                .setDirection(new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVpDistance(SIZE * 10).setVpSize(SIZE * 2.5, SIZE * 2.5);
+    }
+
+    /**
+     * Random spheres of random materials above a floor, lit by a point light and a directional light
+     *
+     * @param count the amount of spheres
+     * @param seed  the seed of the scene
+     * @return the scene
+     */
+    public static Scene randomSpheres(int count, long seed) {
+        checkCount(count);
+        SplittableRandom random = new SplittableRandom(seed);
+        Scene scene = newScene("random spheres " + count);
+        // the radius shrinks with the amount so that the spheres fill about the same volume
+        double radius = SIZE / 2 / Math.cbrt(count);
+        List<Intersectable> geometries = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; ++i)
+            geometries.add(new Sphere(radius * random.nextDouble(0.3, 1), randomPoint(random, SIZE))
+                    .setEmission(randomColor(random, 100))
+                    .setMaterial(randomMaterial(random)));
+        geometries.add(floor());
+        scene.geometries.add(geometries);
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(SIZE, SIZE * 2, SIZE * 2))
+                .setKL(1e-4).setKQ(1e-6));
+        scene.lights.add(new DirectionalLight(new Color(150, 150, 150), new Vector(-1, -2, -1)));
+        return scene;
+    }
+
+    /**
+     * Random triangles of a few random colors, lit by a point light and a directional light
+     *
+     * @param count  the amount of triangles
+     * @param seed   the seed of the scene
+     * @param packed pack the triangles into single precision meshes as they are generated, so that only
+     *               the triangle objects of a single mesh exist at a time (a mesh keeps a triangle of
+     *               every color as its surfaces) instead of all the triangles of a huge soup
+     * @return the scene
+     */
+    public static Scene triangleSoup(int count, long seed, boolean packed) {
+        checkCount(count);
+        SplittableRandom random = new SplittableRandom(seed);
+        Scene scene = newScene("triangle soup " + count);
+        // the triangles shrink with the amount so that they cover about the same area
+        double edge = SIZE / Math.sqrt(count) * 4;
+        List<Intersectable> geometries = new ArrayList<>();
+        List<Triangle> mesh = new ArrayList<>(Math.min(count, MESH_SIZE));
+        Material material = new Material().setKd(0.5).setKs(0.3).setShininess(20);
+        Color[] colors = new Color[SOUP_COLORS];
+        for (int i = 0; i < SOUP_COLORS; ++i)
+            colors[i] = randomColor(random, 150);
+        for (int i = 0; i < count; ++i) {
+            Point a = randomPoint(random, SIZE);
+            Triangle triangle = new Triangle(a, a.add(randomOffset(random, edge)), a.add(randomOffset(random, edge)));
+            triangle.setEmission(colors[random.nextInt(SOUP_COLORS)]).setMaterial(material);
+            if (!packed)
+                geometries.add(triangle);
+            else {
+                mesh.add(triangle);
+                if (mesh.size() == MESH_SIZE || i == count - 1) {
+                    geometries.add(new TriangleMesh(mesh));
+                    mesh = new ArrayList<>(Math.min(count - i - 1, MESH_SIZE));
+                }
+            }
+        }
+        scene.geometries.add(geometries);
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(SIZE, SIZE * 2, SIZE * 2))
+                .setKL(1e-4).setKQ(1e-6));
+        scene.lights.add(new DirectionalLight(new Color(150, 150, 150), new Vector(1, -1, -2)));
+        return scene;
+    }
+
+    /**
+     * A Cornell box - a room with a red left wall and a green right wall, open towards the camera,
+     * with two spheres lit by a light under the ceiling
+     *
+     * @param variant the variant of the box
+     * @return the scene
+     */
+    public static Scene cornellBox(CornellBox variant) {
+        Scene scene = newScene("cornell box " + variant);
+        Material wall = new Material().setKd(0.7).setKs(0.05).setShininess(5);
+        Color white = new Color(25, 25, 25);
+        double s = SIZE;
+        List<Intersectable> geometries = new ArrayList<>();
+        // floor, ceiling, back wall, left wall and right wall
+        geometries.add(quad(new Point(-s, -s, s), new Point(s, -s, s), new Point(s, -s, -s), new Point(-s, -s, -s))
+                .setEmission(white).setMaterial(wall));
+        geometries.add(quad(new Point(-s, s, -s), new Point(s, s, -s), new Point(s, s, s), new Point(-s, s, s))
+                .setEmission(white).setMaterial(wall));
+        geometries.add(quad(new Point(-s, -s, -s), new Point(s, -s, -s), new Point(s, s, -s), new Point(-s, s, -s))
+                .setEmission(white).setMaterial(wall));
+        geometries.add(quad(new Point(-s, -s, s), new Point(-s, -s, -s), new Point(-s, s, -s), new Point(-s, s, s))
+                .setEmission(new Color(70, 10, 10)).setMaterial(wall));
+        geometries.add(quad(new Point(s, -s, -s), new Point(s, -s, s), new Point(s, s, s), new Point(s, s, -s))
+                .setEmission(new Color(10, 70, 10)).setMaterial(wall));
+
+        Material left = new Material().setKd(0.6).setKs(0.3).setShininess(30);
+        Material right = left;
+        switch (variant) {
+            case MIRROR_GLASS -> {
+                left = new Material().setKd(0.1).setKs(0.5).setShininess(100).setKr(0.9);
+                right = new Material().setKd(0.1).setKs(0.5).setShininess(100).setKt(0.8).setKr(0.1);
+            }
+            case GLOSSY_BLURRY -> {
+                left = new Material().setKd(0.1).setKs(0.5).setShininess(100).setKr(0.9).setGlossiness(5);
+                right = new Material().setKd(0.1).setKs(0.5).setShininess(100).setKt(0.8).setDiffuseness(5);
+            }
+            default -> {
+            }
+        }
+        geometries.add(new Sphere(s * 0.35, new Point(-s * 0.4, -s * 0.65, -s * 0.3))
+                .setEmission(new Color(20, 20, 40)).setMaterial(left));
+        geometries.add(new Sphere(s * 0.35, new Point(s * 0.45, -s * 0.65, s * 0.2))
+                .setEmission(new Color(40, 20, 20)).setMaterial(right));
+        scene.geometries.add(geometries);
+
+        Point light = new Point(0, s * 0.95, 0);
+        scene.lights.add(variant == CornellBox.AREA_LIGHT
+                ? new RectangleLight(new Color(180, 180, 180), light, new Vector(s * 0.5, 0, 0),
+                new Vector(0, 0, s * 0.5)).setKL(1e-3).setKQ(1e-5)
+                : new PointLight(new Color(180, 180, 180), light).setKL(1e-3).setKQ(1e-5));
+        return scene;
+    }
+
+    /**
+     * Mirror and glass spheres between two facing mirrors - a stress of deep reflection and refraction
+     * recursion, nearly every ray reaches the maximal level
+     *
+     * @param count the amount of spheres
+     * @param seed  the seed of the scene
+     * @return the scene
+     */
+    public static Scene mirrorStress(int count, long seed) {
+        checkCount(count);
+        SplittableRandom random = new SplittableRandom(seed);
+        Scene scene = newScene("mirror stress " + count);
+        double s = SIZE;
+        Material mirror = new Material().setKd(0.05).setKs(0.2).setShininess(200).setKr(0.95);
+        Material glass = new Material().setKd(0.05).setKs(0.3).setShininess(200).setKt(0.85).setKr(0.1);
+        List<Intersectable> geometries = new ArrayList<>(count + 2);
+        geometries.add(quad(new Point(-s, -s, -s), new Point(-s, s, -s), new Point(-s, s, s), new Point(-s, -s, s))
+                .setMaterial(mirror));
+        geometries.add(quad(new Point(s, -s, -s), new Point(s, -s, s), new Point(s, s, s), new Point(s, s, -s))
+                .setMaterial(mirror));
+        double radius = s / 2 / Math.cbrt(count);
+        for (int i = 0; i < count; ++i)
+            geometries.add(new Sphere(radius * random.nextDouble(0.5, 1), randomPoint(random, s * 0.9))
+                    .setEmission(randomColor(random, 40))
+                    .setMaterial(random.nextBoolean() ? mirror : glass));
+        scene.geometries.add(geometries);
+        scene.lights.add(new PointLight(new Color(600, 600, 600), new Point(0, s * 2, s * 2))
+                .setKL(1e-4).setKQ(1e-6));
+        return scene;
+    }
+
+    /**
+     * Random spheres above a floor lit by many small attenuated point lights - a stress of the
+     * lighting, see {@link Scene#setLightCulling(double)} and the light sampling of the ray tracer
+     *
+     * @param lightCount the amount of lights
+     * @param count      the amount of spheres
+     * @param seed       the seed of the scene
+     * @return the scene
+     */
+    public static Scene manyLights(int lightCount, int count, long seed) {
+        checkCount(lightCount);
+        checkCount(count);
+        SplittableRandom random = new SplittableRandom(seed);
+        Scene scene = newScene("many lights " + lightCount);
+        double radius = SIZE / 2 / Math.cbrt(count);
+        List<Intersectable> geometries = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; ++i)
+            geometries.add(new Sphere(radius * random.nextDouble(0.3, 1), randomPoint(random, SIZE))
+                    .setEmission(randomColor(random, 30))
+                    .setMaterial(new Material().setKd(0.6).setKs(0.3).setShininess(30)));
+        geometries.add(floor());
+        scene.geometries.add(geometries);
+        // the lights weaken with the distance faster when there are more of them
+        double reach = SIZE * 4 / Math.cbrt(lightCount);
+        for (int i = 0; i < lightCount; ++i)
+            scene.lights.add(new PointLight(randomColor(random, 300), randomPoint(random, SIZE * 1.2))
+                    .setKL(1 / reach).setKQ(1 / (reach * reach)));
+        return scene;
+    }
+
+    /**
+     * A random mix of spheres, triangles, quads and cylinders above a floor, lit by a spot light
+     * and a directional light
+     *
+     * @param count the amount of geometries
+     * @param seed  the seed of the scene
+     * @return the scene
+     */
+    public static Scene mixed(int count, long seed) {
+        checkCount(count);
+        SplittableRandom random = new SplittableRandom(seed);
+        Scene scene = newScene("mixed " + count);
+        double size = SIZE / 2 / Math.cbrt(count);
+        List<Intersectable> geometries = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; ++i) {
+            Point p = randomPoint(random, SIZE);
+            Geometry geometry = switch (random.nextInt(4)) {
+                case 0 -> new Sphere(size * random.nextDouble(0.3, 1), p);
+                case 1 -> new Triangle(p, p.add(randomOffset(random, size * 2)), p.add(randomOffset(random, size * 2)));
+                case 2 -> {
+                    // a parallelogram of two random edges
+                    Vector u = randomOffset(random, size * 2);
+                    Vector v = randomOffset(random, size * 2);
+                    yield new Polygon(p, p.add(u), p.add(u).add(v), p.add(v));
+                }
+                default -> new Cylinder(size * random.nextDouble(0.2, 0.5),
+                        new Ray(p, randomOffset(random, 1)), size * random.nextDouble(0.5, 2));
+            };
+            geometries.add(geometry.setEmission(randomColor(random, 100)).setMaterial(randomMaterial(random)));
+        }
+        geometries.add(floor());
+        scene.geometries.add(geometries);
+        scene.lights.add(new SpotLight(new Color(700, 700, 700), new Point(0, SIZE * 2, SIZE), new Vector(0, -2, -1))
+                .setKL(1e-4).setKQ(1e-6));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(-1, -2, -1)));
+        return scene;
+    }
+
+    /**
+     * Creates an empty scene with the conservative bounding regions turned on (for the whole process)
+     *
+     * @param name the name of the scene
+     * @return the scene
+     */
+    private static Scene newScene(String name) {
+        return new Scene(name).setCBR()
+                .setBackground(new Color(20, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+    }
+
+    /**
+     * Checks an amount of generated objects
+     *
+     * @param count the amount
+     */
+    private static void checkCount(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Amount of objects must be positive");
+        }
+    }
+
+    /**
+     * Creates the floor under the cube of the scenes
+     *
+     * @return the floor
+     */
+    private static Geometry floor() {
+        double s = SIZE * 1.5;
+        return quad(new Point(-s, -SIZE * 1.1, s), new Point(s, -SIZE * 1.1, s), new Point(s, -SIZE * 1.1, -s),
+                new Point(-s, -SIZE * 1.1, -s))
+                .setEmission(new Color(30, 30, 30))
+                .setMaterial(new Material().setKd(0.6).setKs(0.2).setShininess(20).setKr(0.2));
+    }
+
+    /**
+     * Creates a quadrilateral
+     *
+     * @param a the first vertex
+     * @param b the second vertex
+     * @param c the third vertex
+     * @param d the fourth vertex
+     * @return the quadrilateral
+     */
+    private static Geometry quad(Point a, Point b, Point c, Point d) {
+        return new Polygon(a, b, c, d);
+    }
+
+    /**
+     * Creates a random point in a cube around the origin
+     *
+     * @param random the random numbers
+     * @param size   half of the side of the cube
+     * @return the point
+     */
+    private static Point randomPoint(SplittableRandom random, double size) {
+        return new Point(random.nextDouble(-size, size), random.nextDouble(-size, size),
+                random.nextDouble(-size, size));
+    }
+
+    /**
+     * Creates a random vector of a given length
+     *
+     * @param random the random numbers
+     * @param length the length of the vector
+     * @return the vector
+     */
+    private static Vector randomOffset(SplittableRandom random, double length) {
+        // rejection sampling of the unit ball keeps the directions uniform and avoids the zero vector
+        double x, y, z, d;
+        do {
+            x = random.nextDouble(-1, 1);
+            y = random.nextDouble(-1, 1);
+            z = random.nextDouble(-1, 1);
+            d = x * x + y * y + z * z;
+        } while (d > 1 || d < 0.01);
+        return new Vector(x, y, z).normalize().scale(length);
+    }
+
+    /**
+     * Creates a random color
+     *
+     * @param random the random numbers
+     * @param max    the maximal value of a component
+     * @return the color
+     */
+    private static Color randomColor(SplittableRandom random, double max) {
+        return new Color(random.nextDouble(max), random.nextDouble(max), random.nextDouble(max));
+    }
+
+    /**
+     * Creates a random material - mostly diffuse, some of them reflecting or transparent
+     *
+     * @param random the random numbers
+     * @return the material
+     */
+    private static Material randomMaterial(SplittableRandom random) {
+        Material material = new Material().setKd(random.nextDouble(0.2, 0.8)).setKs(random.nextDouble(0.1, 0.6))
+                .setShininess(random.nextInt(5, 200));
+        double kind = random.nextDouble();
+        if (kind < 0.1)
+            material.setKr(random.nextDouble(0.3, 0.9));
+        else if (kind < 0.2)
+            material.setKt(random.nextDouble(0.3, 0.9)).setKr(0.1);
+        return material;
+    }
+}
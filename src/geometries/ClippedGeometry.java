@@ -0,0 +1,44 @@
+package geometries;
+
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ClippedGeometry class represents an infinite geometry (a plane, a tube) clipped to a box.<br>
+ * The clipped geometry has a box, so it participates in the bounding volume hierarchy
+ * like a finite geometry; its intersections out of the box are dropped, and the others are
+ * marked as found by the clipped geometry.
+ */
+public class ClippedGeometry extends Intersectable {
+    /**
+     * The infinite geometry
+     */
+    private final Intersectable geometry;
+
+    /**
+     * Constructs a geometry clipped to a box
+     *
+     * @param geometry the infinite geometry
+     * @param box      the clipping box
+     */
+    public ClippedGeometry(Intersectable geometry, Border box) {
+        this.geometry = geometry;
+        this.box = box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = geometry.findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) return null;
+        List<GeoPoint> inside = new ArrayList<>(intersections.size());
+        for (GeoPoint gp : intersections) {
+            if (box.contains(gp.point)) {
+                gp.intersectable = this;
+                inside.add(gp);
+            }
+        }
+        return inside.isEmpty() ? null : inside;
+    }
+}
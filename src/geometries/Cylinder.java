@@ -75,12 +75,13 @@ import static primitives.Util.isZero;
 public class Cylinder extends Tube {
 
     final double height;
-    final Plane bottomBase;
-    final Plane upperBase;
 
      final Point bottomCenter;
-    private final Point upperCenter;
     private final Vector dir;
+    /**
+     * Coordinates of the bottom center and of the axis direction, for the scalar kernel
+     */
+    private final double cx, cy, cz, ax, ay, az;
 
     /**
      * A constructor. It is a constructor of the superclass.
@@ -93,9 +94,21 @@ public class Cylinder extends Tube {
         this.height = height;
         this.dir = this.axis.getDirection();
         this.bottomCenter = this.axis.getHead();
-        this.upperCenter = this.axis.getPoint(this.height);
-        this.bottomBase = new Plane( this.bottomCenter,this.dir );
-        this.upperBase = new Plane(this.upperCenter,this.dir);
+        cx = bottomCenter.getX();
+        cy = bottomCenter.getY();
+        cz = bottomCenter.getZ();
+        ax = dir.getX();
+        ay = dir.getY();
+        az = dir.getZ();
+        if (cbr) {
+            // the bases are discs - their extent along an axis is radius * sin(angle between the axes)
+            double ex = radius * Math.sqrt(Math.max(0, 1 - ax * ax));
+            double ey = radius * Math.sqrt(Math.max(0, 1 - ay * ay));
+            double ez = radius * Math.sqrt(Math.max(0, 1 - az * az));
+            double tx = cx + ax * height, ty = cy + ay * height, tz = cz + az * height;
+            box = new Border(Math.min(cx, tx) - ex, Math.min(cy, ty) - ey, Math.min(cz, tz) - ez,
+                    Math.max(cx, tx) + ex, Math.max(cy, ty) + ey, Math.max(cz, tz) + ez);
+        }
     }
 
     /**
@@ -106,20 +119,17 @@ public class Cylinder extends Tube {
      */
     @Override
     public Vector getNormal(Point p) {
-        //if the Point coalesces with head of the axisRay (p0), then returns axisRay Vector in opposite direction
-        //Or, if the Point is on both bottom base and surface, then the normal will be from bottom base
-        if (p.equals(this.bottomCenter) || isZero(p.subtract(this.bottomCenter).dotProduct(this.dir))) {
+        // the height of the point above the bottom base classifies it - bottom base, upper base or surface
+        double px = p.getX() - cx, py = p.getY() - cy, pz = p.getZ() - cz;
+        double h = px * ax + py * ay + pz * az;
+        //if the Point is on the bottom base (including its center and edge), the normal is opposite to the axis
+        if (isZero(h))
             return this.dir.scale(-1);
-        }
-
-        //if the Point is on the axisRay, then returns axisRay Vector
-        //Or, if the Point is on both top base and surface, then the normal will be form top base
-        else if ((this.bottomCenter.add(this.dir.scale(this.height)).equals(p)) || isZero(p.subtract(this.bottomCenter.add(this.dir.scale(this.height))).dotProduct(this.dir))) {
+        //if the Point is on the top base (including its center and edge), the normal is the axis
+        if (isZero(h - this.height))
             return this.dir;
-        }
-
-        //if the Point is on the surface itself, then calls Tube's function
-        return super.getNormal(p);
+        //the Point is on the surface itself - the normal is from its projection on the axis
+        return new Vector(px - ax * h, py - ay * h, pz - az * h).normalize();
     }
 
     /**
@@ -132,61 +142,138 @@ public class Cylinder extends Tube {
     }
 
     /**
-     * The function finds the intersections of the ray with the infinite cylinder and then checks whether the intersections
-     * are within the cylinder's height
+     * The function finds the intersections of the ray with the cylinder's surface and bases
      *
      * @param ray the ray we're checking for intersections with the cylinder
      * @return The intersection points of the ray with the cylinder.
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        //Step 1 - finding intersection Points with bases:
-        GeoPoint gp1 = baseIntersection(this.bottomBase, ray, this.bottomCenter); //intersection Point with bottom base
-        GeoPoint gp2 = baseIntersection(this.upperBase, ray, this.upperCenter); //intersection Point with upper base
-        if (gp1 != null && gp2 != null) return twoPoints(ray, gp1, gp2);
-        GeoPoint basePoint = gp1 != null ? gp1 : gp2;
-
-        //Step 2 - checking if intersection Points with Tube are on Cylinder itself:
-        List<GeoPoint> lst = super.findGeoIntersectionsHelper(ray, maxDistance); //intersection Points with Tube
-        if (lst == null) return basePoint == null ? null : List.of(basePoint);
-
-        gp1 = checkIntersection(lst.get(0).point);
-        gp2 = lst.size() < 2 ? null : checkIntersection(lst.get(1).point);
-        if (basePoint != null)
-            return gp1 != null ? twoPoints(ray, basePoint, gp1)
-                    : gp2 != null ? twoPoints(ray, basePoint, gp2) : List.of(basePoint);
-        if (gp1 == null) return gp2 != null ? List.of(gp2) : null;
-        return gp2 != null ? twoPoints(ray, gp1, gp2) : List.of(gp1);
+        double[] t = {NO_INTERSECTION, NO_INTERSECTION};
+        if (intersect(ray, maxDistance, t, false) == NO_INTERSECTION) return null;
+        GeoPoint gp1 = new GeoPoint(this, ray.getPoint(t[0]));
+        return t[1] == NO_INTERSECTION ? List.of(gp1) : List.of(gp1, new GeoPoint(this, ray.getPoint(t[1])));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findClosestT(ray, maxDistance);
+        return t == NO_INTERSECTION ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return intersect(ray, maxDistance, null, true) != NO_INTERSECTION;
+    }
+
+    /**
+     * Scalar cylinder kernel - calculates the ray parameter of the nearest intersection of the ray
+     * with the cylinder without creating any object.
+     *
+     * @param ray         the ray to intersect with the cylinder
+     * @param maxDistance the maximum distance from the ray head
+     * @return the nearest t in range (0, maxDistance), or {@link #NO_INTERSECTION}
+     */
+    public double findClosestT(Ray ray, double maxDistance) {
+        return intersect(ray, maxDistance, null, false);
+    }
+
+    /**
+     * Intersects the ray with the cylinder in its local frame - the height along the axis from the
+     * bottom base and the distance from the axis (by the Pythagorean theorem, so the other two axes
+     * of the frame are not needed). The surface is a quadratic in the ray parameter, and the bases are
+     * the parameters where the height is 0 and the cylinder's height. Points on the edges of the bases
+     * and on the surface out of the bases are not intersections.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the ray head
+     * @param t           array for the ray parameters of the intersections sorted by distance, filled with
+     *                    {@link #NO_INTERSECTION}, or null when only the nearest intersection is needed
+     * @param any         stop at the first found intersection
+     * @return the ray parameter of the nearest intersection (of the first found one if any is true),
+     * or {@link #NO_INTERSECTION}
+     */
+    private double intersect(Ray ray, double maxDistance, double[] t, boolean any) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        double ox = p0.getX() - cx, oy = p0.getY() - cy, oz = p0.getZ() - cz;
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        // the local frame coordinates of the ray - heights along the axis
+        double oh = ox * ax + oy * ay + oz * az;
+        double vh = vx * ax + vy * ay + vz * az;
+        double ov = ox * vx + oy * vy + oz * vz;
+        double oo = ox * ox + oy * oy + oz * oz;
+        double radius2 = radius * radius;
+        double nearest = NO_INTERSECTION;
+
+        // the surface: |o + tv|^2 - (oh + t*vh)^2 = r^2
+        double a = 1 - vh * vh;
+        if (!isZero(a)) {
+            double b = ov - oh * vh;
+            double c = oo - oh * oh - radius2;
+            double discriminant = alignZero(b * b - a * c);
+            if (discriminant > 0) {
+                double root = Math.sqrt(discriminant);
+                nearest = add(t, nearest, (-b - root) / a, oh, vh, maxDistance);
+                if (any && nearest != NO_INTERSECTION) return nearest;
+                nearest = add(t, nearest, (-b + root) / a, oh, vh, maxDistance);
+                if (any && nearest != NO_INTERSECTION) return nearest;
+            }
+        }
+
+        // the bases: oh + t*vh = 0 or height
+        if (!isZero(vh)) {
+            for (int i = 0; i < 2; ++i) {
+                double base = i == 0 ? 0 : height;
+                double tb = alignZero((base - oh) / vh);
+                if (tb > 0 && alignZero(tb - maxDistance) < 0) {
+                    // the squared distance from the axis at the base's height
+                    double r2 = oo + 2 * tb * ov + tb * tb - base * base;
+                    if (alignZero(r2 - radius2) < 0) {
+                        nearest = insert(t, nearest, tb);
+                        if (any) return nearest;
+                    }
+                }
+            }
+        }
+        return nearest;
     }
 
     /**
-     * If the distance between the intersection point and the center of the sphere is less than the radius of the sphere,
-     * then the intersection point is on the sphere
+     * Adds an intersection with the surface if it is in the range and between the bases
      *
-     * @param base The plane that the cylinder is parallel to.
-     * @param ray The ray that intersects the sphere
-     * @param center the center of the sphere
-     * @return The intersection point of the ray and the base of the cylinder.
+     * @param t           the found ray parameters, or null
+     * @param nearest     the nearest found ray parameter
+     * @param ts          the ray parameter of the surface intersection
+     * @param oh          the height of the ray head
+     * @param vh          the height component of the ray direction
+     * @param maxDistance the maximum distance from the ray head
+     * @return the new nearest found ray parameter
      */
-    private GeoPoint baseIntersection(Plane base, Ray ray, Point center) {
-        List<GeoPoint> lst = base.findGeoIntersections(ray); //intersection Points with Plane
-        if (lst == null) return null;
-        Point p = lst.get(0).point;
-        double radius2 = this.radius * this.radius;
-        return alignZero(p.distanceSquared(center) - radius2) < 0 ? new GeoPoint(this, p) : null;
+    private double add(double[] t, double nearest, double ts, double oh, double vh, double maxDistance) {
+        ts = alignZero(ts);
+        if (ts <= 0 || alignZero(ts - maxDistance) >= 0) return nearest;
+        double h = oh + ts * vh;
+        return alignZero(h) > 0 && alignZero(h - height) < 0 ? insert(t, nearest, ts) : nearest;
     }
 
     /**
-     * If the point is on the line, return a new GeoPoint object
+     * Inserts a ray parameter into the sorted found ones (a line crosses a convex body twice at most,
+     * so the two nearest are kept)
      *
-     * @param p the point to check if it's on the line
-     * @return A GeoPoint object.
+     * @param t       the found ray parameters, or null
+     * @param nearest the nearest found ray parameter
+     * @param ts      the new ray parameter
+     * @return the new nearest found ray parameter
      */
-    private GeoPoint checkIntersection(Point p) {
-        if (p == null) return null;
-        return alignZero(this.dir.dotProduct(p.subtract(this.bottomCenter))) > 0
-                && alignZero(this.dir.dotProduct(p.subtract(this.upperCenter))) < 0
-                ? new GeoPoint(this, p) : null;
+    private static double insert(double[] t, double nearest, double ts) {
+        if (t != null) {
+            if (ts < t[0]) {
+                t[1] = t[0];
+                t[0] = ts;
+            } else if (ts < t[1]) t[1] = ts;
+        }
+        return Math.min(nearest, ts);
     }
 
     /**
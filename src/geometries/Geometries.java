@@ -9,6 +9,11 @@ public class Geometries extends Intersectable {
 
     final private List<Intersectable> geometries = new LinkedList<>();
      final List<Intersectable> infinites = new LinkedList<Intersectable>();
+    /**
+     * The box of the finite geometries - it bounds them even when the container has infinite
+     * geometries (and so has no box of its own), null if there are no finite geometries
+     */
+    private Border finiteBox = null;
   //  private final List<Intersectable> intersections = new LinkedList<Intersectable>();
 
     public Geometries() {
@@ -19,7 +24,7 @@ public class Geometries extends Intersectable {
     }
 
     public void add(Intersectable... geometries) {
-        this.geometries.addAll(List.of(geometries));
+        add(List.of(geometries));
     }
 
     /**
@@ -38,27 +43,44 @@ public class Geometries extends Intersectable {
                 infinites.add(g);
             else {
                 this.geometries.add(g);
-                if (infinites.isEmpty()) {
-                    if (box == null)
-                        box = new Border();
-                    if (g.box.minX < box.minX)
-                        box.minX = g.box.minX;
-                    if (g.box.minY < box.minY)
-                        box.minY = g.box.minY;
-                    if (g.box.minZ < box.minZ)
-                        box.minZ = g.box.minZ;
-                    if (g.box.maxX > box.maxX)
-                        box.maxX = g.box.maxX;
-                    if (g.box.maxY > box.maxY)
-                        box.maxY = g.box.maxY;
-                    if (g.box.maxZ > box.maxZ)
-                        box.maxZ = g.box.maxZ;
-                }
+                if (finiteBox == null)
+                    finiteBox = new Border();
+                finiteBox.extend(g.box);
             }
         }
-        // if there are inifinite objects
-        if (!infinites.isEmpty())
-            box = null;
+        // if there are inifinite objects the container is unbounded, its finite part keeps its box
+        box = infinites.isEmpty() ? finiteBox : null;
+    }
+
+    /**
+     * Clips the infinite geometries (planes, tubes) of the container to the box of its finite
+     * geometries extended by a margin, so that they get a box and participate in the hierarchy.
+     * The parts of the infinite geometries out of the box are removed from the scene.
+     * It must be called <b><u>after</u></b> creating the 3D model and before {@link #setBVH()}.
+     *
+     * @param margin the extension of the box at each side
+     */
+    public void clipInfinites(double margin) {
+        if (!cbr || finiteBox == null || infinites.isEmpty())
+            return;
+        Border clip = new Border(finiteBox.minX - margin, finiteBox.minY - margin, finiteBox.minZ - margin,
+                finiteBox.maxX + margin, finiteBox.maxY + margin, finiteBox.maxZ + margin);
+        List<Intersectable> clipped = new LinkedList<>();
+        for (Intersectable infinite : infinites)
+            clipped.add(new ClippedGeometry(infinite, clip));
+        infinites.clear();
+        add(clipped);
+    }
+
+    /**
+     * Checks whether a ray may hit the finite geometries
+     *
+     * @param ray the ray
+     * @return false if the ray misses the box of the finite geometries of a container with infinite ones
+     */
+    private boolean hitsFinites(Ray ray) {
+        // without infinite geometries the box of the container is checked by the caller
+        return infinites.isEmpty() || finiteBox == null || finiteBox.intersect(ray);
     }
     /**
      * constructor that gets several intersectables and add them to the geometries
@@ -74,18 +96,19 @@ public class Geometries extends Intersectable {
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray , double maxDistance) {
         List<GeoPoint> intersections = null;
 
-        for (Intersectable geometry : geometries) {
-            List<GeoPoint> geoPoints = geometry.findGeoIntersectionsHelper(ray,maxDistance);
-            if (geoPoints != null) {
-                if (intersections == null) {
-                    intersections = new LinkedList<>();
+        if (hitsFinites(ray))
+            for (Intersectable geometry : geometries) {
+                List<GeoPoint> geoPoints = geometry.findGeoIntersections(ray, maxDistance);
+                if (geoPoints != null) {
+                    if (intersections == null) {
+                        intersections = new LinkedList<>();
+                    }
+                    intersections.addAll(geoPoints);
                 }
-                intersections.addAll(geoPoints);
             }
-        }
         for(Intersectable shape: infinites)
         {
-            List<GeoPoint> temPoints = shape.findGeoIntersections(ray);
+            List<GeoPoint> temPoints = shape.findGeoIntersections(ray, maxDistance);
             if(temPoints != null)
             {
                 if(intersections == null)
@@ -99,6 +122,86 @@ public class Geometries extends Intersectable {
 
 
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        GeoPoint closest = null;
+        // every found intersection shortens the distance the rest of the geometries are tested to
+        if (hitsFinites(ray))
+            for (Intersectable geometry : geometries) {
+                GeoPoint gp = geometry.findClosestIntersection(ray, maxDistance);
+                if (gp != null) {
+                    closest = gp;
+                    maxDistance = head.distance(gp.point);
+                }
+            }
+        for (Intersectable shape : infinites) {
+            GeoPoint gp = shape.findClosestIntersection(ray, maxDistance);
+            if (gp != null) {
+                closest = gp;
+                maxDistance = head.distance(gp.point);
+            }
+        }
+        return closest;
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        if (hitsFinites(ray))
+            for (Intersectable geometry : geometries)
+                if (geometry.hasIntersection(ray, maxDistance))
+                    return true;
+        for (Intersectable shape : infinites)
+            if (shape.hasIntersection(ray, maxDistance))
+                return true;
+        return false;
+    }
+
+    /**
+     * Replaces the polygons of this container (and of the nested containers) by fans of triangles,
+     * so that they are packed into the triangle meshes as well
+     */
+    public void triangulatePolygons() {
+        List<Triangle> triangles = new LinkedList<>();
+        for (var iterator = geometries.iterator(); iterator.hasNext(); ) {
+            Intersectable geometry = iterator.next();
+            if (geometry instanceof Polygon polygon && !(geometry instanceof Triangle)) {
+                triangles.addAll(polygon.triangulate());
+                iterator.remove();
+            } else if (geometry instanceof Geometries nested)
+                nested.triangulatePolygons();
+        }
+        geometries.addAll(triangles);
+    }
+
+    /**
+     * Moves the triangles of this container (and of the nested containers) into
+     * single precision {@link TriangleMesh} objects - one mesh per container
+     */
+    public void packTriangles() {
+        packTriangles(null);
+    }
+
+    /**
+     * Moves the triangles of this container (and of the nested containers) into
+     * single precision {@link TriangleMesh} objects - one mesh per container
+     *
+     * @param arena the arena for off-heap meshes, or null for meshes on the heap
+     */
+    public void packTriangles(OffHeapArena arena) {
+        List<Triangle> triangles = new LinkedList<>();
+        for (var iterator = geometries.iterator(); iterator.hasNext(); ) {
+            Intersectable geometry = iterator.next();
+            if (geometry instanceof Triangle triangle) {
+                triangles.add(triangle);
+                iterator.remove();
+            } else if (geometry instanceof Geometries nested)
+                nested.packTriangles(arena);
+        }
+        if (!triangles.isEmpty())
+            geometries.add(new TriangleMesh(triangles, arena));
+    }
+
     /**
      * create the hierarchy and put into the right boxes
      */
@@ -109,10 +212,12 @@ public class Geometries extends Intersectable {
         if (geometries.size() <= 4)
             return;
 
+        // the hierarchy is built over the finite geometries, the infinite ones are tested separately
         if (box == null) {
-            var finites = new Geometries(geometries);
+            var finites = new Geometries(new LinkedList<>(geometries));
             geometries.clear();
             geometries.add(finites);
+            finites.setBVH();
             return;
         }
 
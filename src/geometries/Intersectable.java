@@ -11,6 +11,11 @@ import java.util.List;
 public abstract class Intersectable {
 
     protected static boolean cbr = false;
+
+    /**
+     * ray parameter returned by the scalar intersection kernels when there is no valid intersection
+     */
+    public static final double NO_INTERSECTION = Double.POSITIVE_INFINITY;
 //    public static long boxCheckCounter = 0;
 //    public static long intersectionCounter = 0;
 
@@ -72,7 +77,45 @@ public abstract class Intersectable {
         }
 
         /**
-         * this function calculate if the ray trace the border of the geometry
+         * Extends the border to contain another border
+         *
+         * @param other the other border
+         */
+        protected void extend(Border other) {
+            if (other.minX < minX)
+                minX = other.minX;
+            if (other.minY < minY)
+                minY = other.minY;
+            if (other.minZ < minZ)
+                minZ = other.minZ;
+            if (other.maxX > maxX)
+                maxX = other.maxX;
+            if (other.maxY > maxY)
+                maxY = other.maxY;
+            if (other.maxZ > maxZ)
+                maxZ = other.maxZ;
+        }
+
+        /**
+         * Checks whether a point is inside the border
+         *
+         * @param point the point
+         * @return true if the point is inside the border or on it
+         */
+        protected boolean contains(Point point) {
+            double x = point.getX();
+            double y = point.getY();
+            double z = point.getZ();
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        /**
+         * this function calculate if the ray trace the border of the geometry<br>
+         * The slab test uses the inverse direction and the direction signs cached in the ray: the
+         * near and the far sides of each slab are chosen by the signs, so the test is multiplications
+         * and comparisons only. A ray parallel to a slab gets infinite distances - the slab rejects it
+         * if it starts out of the slab; a ray starting on the slab's plane gets NaN (0 * infinity),
+         * which the comparisons ignore.
          *
          * @param ray the crosses ray
          * @return true for intersection, false for not intersection
@@ -84,63 +127,32 @@ public abstract class Intersectable {
             double originX = origin.getX();
             double originY = origin.getY();
             double originZ = origin.getZ();
-            Vector dir = ray.getDirection();
-            double dirX = dir.getX();
-            double dirY = dir.getY();
-            double dirZ = dir.getZ();
-
-            // Initially will receive the values of tMinX and tMaxX
-            double tMin = Double.NEGATIVE_INFINITY;
-            double tMax = Double.POSITIVE_INFINITY;
-
-            // the values are depend on the direction of the ray
-
-            if (dirX > 0) {
-                tMin = (minX - originX) / dirX; // b=D*t+O => y=mx+b => dirx*tmin+originx=minx
-                tMax = (maxX - originX) / dirX;
-            } else if (dirX < 0) {
-                tMin = (maxX - originX) / dirX;
-                tMax = (minX - originX) / dirX;
-            }
-
-            double tMinY = Double.NEGATIVE_INFINITY;
-            double tMaxY = Double.POSITIVE_INFINITY;
-            if (dirY > 0) {
-                tMinY = (minY - originY) / dirY;
-                tMaxY = (maxY - originY) / dirY;
-            } else if (dirY < 0) {
-                tMinY = (maxY - originY) / dirY;
-                tMaxY = (minY - originY) / dirY;
-            }
-
-            // If either the max value of Y is smaller than overall min value, or min value
-            // of Y is bigger than the overall
-            // max, we can already return false.
-            // Otherwise we'll update the overall min and max values and perform the same
-            // check on the Z values.
-            if ((tMin > tMaxY) || (tMinY > tMax))
-                return false;
-
+            double inverseX = ray.getInverseX();
+            double inverseY = ray.getInverseY();
+            double inverseZ = ray.getInverseZ();
+
+            // the ray enters the slab by the near side and leaves it by the far side
+            double tMin = ((ray.isNegativeX() ? maxX : minX) - originX) * inverseX;
+            double tMax = ((ray.isNegativeX() ? minX : maxX) - originX) * inverseX;
+            double tMinY = ((ray.isNegativeY() ? maxY : minY) - originY) * inverseY;
+            double tMaxY = ((ray.isNegativeY() ? minY : maxY) - originY) * inverseY;
+            double tMinZ = ((ray.isNegativeZ() ? maxZ : minZ) - originZ) * inverseZ;
+            double tMaxZ = ((ray.isNegativeZ() ? minZ : maxZ) - originZ) * inverseZ;
+
+            // the comparisons are false for NaN, so a NaN never narrows the interval
+            if (!(tMin >= Double.NEGATIVE_INFINITY))
+                tMin = Double.NEGATIVE_INFINITY;
+            if (!(tMax <= Double.POSITIVE_INFINITY))
+                tMax = Double.POSITIVE_INFINITY;
             if (tMinY > tMin)
                 tMin = tMinY;
             if (tMaxY < tMax)
                 tMax = tMaxY;
-
-            double tMinZ = Double.NEGATIVE_INFINITY;
-            double tMaxZ = Double.POSITIVE_INFINITY;
-            if (dirZ > 0) {
-                tMinZ = (minZ - originZ) / dirZ;
-                tMaxZ = (maxZ - originZ) / dirZ;
-            } else if (dirZ < 0) {
-                tMinZ = (maxZ - originZ) / dirZ;
-                tMaxZ = (minZ - originZ) / dirZ;
-            }
-
-            // If either the max value of Z is smaller than overall min value, or min value
-            // of Z is bigger than the overall
-            // max, we can already return false. Otherwise we can return true since no other
-            // coordinate checks are needed.
-            return tMin <= tMaxZ && tMinZ <= tMax;
+            if (tMinZ > tMin)
+                tMin = tMinZ;
+            if (tMaxZ < tMax)
+                tMax = tMaxZ;
+            return tMin <= tMax;
         }
 
     }
@@ -154,6 +166,11 @@ public abstract class Intersectable {
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * The intersectable which found the point - the geometry itself, or the object wrapping it
+         * (a clipped geometry); testing it again finds the same surface
+         */
+        public Intersectable intersectable;
 
         /**
          * Constructor for GeoPoint.
@@ -162,8 +179,20 @@ public abstract class Intersectable {
          * @param point    the point of intersection
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, geometry);
+        }
+
+        /**
+         * Constructor for GeoPoint found by a wrapping intersectable.
+         *
+         * @param geometry      the geometry object
+         * @param point         the point of intersection
+         * @param intersectable the intersectable which found the point
+         */
+        public GeoPoint(Geometry geometry, Point point, Intersectable intersectable) {
             this.geometry = geometry;
             this.point = point;
+            this.intersectable = intersectable;
         }
 
         @Override
@@ -188,9 +217,54 @@ public abstract class Intersectable {
      * @return the closest intersection point or null if no intersection
      */
     public GeoPoint findClosestIntersection(Ray ray) {
-        var intersections = findGeoIntersections(ray);
+        return findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the closest intersection point of a ray with the geometry, not farther than the given distance.
+     *
+     * @param ray         the ray to be traced
+     * @param maxDistance the maximum distance from the ray head
+     * @return the closest intersection point or null if no intersection
+     */
+    public final GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return box != null && !box.intersect(ray) ? null : findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Checks whether the ray intersects the geometry before the given distance (occlusion query).
+     *
+     * @param ray         the ray to be traced
+     * @param maxDistance the maximum distance from the ray head
+     * @return true if there is at least one intersection, false otherwise
+     */
+    public final boolean hasIntersection(Ray ray, double maxDistance) {
+        return (box == null || box.intersect(ray)) && hasIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Finds the closest intersection, the default implementation picks it from all the intersections.
+     * Geometries with a scalar kernel override it to avoid creating the list.
+     *
+     * @param ray         the ray to be traced
+     * @param maxDistance the maximum distance from the ray head
+     * @return the closest intersection point or null if no intersection
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
         return intersections == null ? null : ray.findClosestGeoPoint(intersections);
     }
+
+    /**
+     * Occlusion query helper, the default implementation looks for any intersection.
+     *
+     * @param ray         the ray to be traced
+     * @param maxDistance the maximum distance from the ray head
+     * @return true if there is at least one intersection, false otherwise
+     */
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return findGeoIntersectionsHelper(ray, maxDistance) != null;
+    }
 //////////////////////////////////////////
 
     /**
@@ -205,7 +279,7 @@ public abstract class Intersectable {
                 : geoList.stream().map(geoPoint -> geoPoint.point).toList();
     }
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
-        return findGeoIntersectionsHelper(ray, maxDistance);
+        return box != null && !box.intersect(ray) ? null : findGeoIntersectionsHelper(ray, maxDistance);
     }
 
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
@@ -0,0 +1,96 @@
+package geometries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Off-heap memory for the geometry data of a scene.<br>
+ * The memory is taken from big direct (native) chunks that are sliced into
+ * buffers in the native byte order, so the garbage collector sees a handful of
+ * chunk objects instead of millions of small points. The memory is released
+ * together with the arena (i.e. with the scene that owns it).
+ */
+public class OffHeapArena {
+    /**
+     * Size of a memory chunk in bytes - bigger allocations get a chunk of their own
+     */
+    private static final int CHUNK_SIZE = 1 << 26;
+    /**
+     * Alignment of the allocations in bytes
+     */
+    private static final int ALIGNMENT = 8;
+
+    /**
+     * The allocated chunks
+     */
+    private final List<ByteBuffer> chunks = new LinkedList<>();
+    /**
+     * The chunk for the next allocations
+     */
+    private ByteBuffer current = null;
+    /**
+     * Amount of allocated bytes
+     */
+    private long allocated = 0;
+
+    /**
+     * Allocates a float buffer
+     *
+     * @param count the amount of floats
+     * @return the buffer
+     */
+    public FloatBuffer allocateFloats(int count) {
+        return allocate((long) count * Float.BYTES).asFloatBuffer();
+    }
+
+    /**
+     * Allocates an int buffer
+     *
+     * @param count the amount of ints
+     * @return the buffer
+     */
+    public IntBuffer allocateInts(int count) {
+        return allocate((long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Amount of memory allocated from the arena
+     *
+     * @return the allocated bytes
+     */
+    public synchronized long allocatedBytes() {
+        return allocated;
+    }
+
+    /**
+     * Allocates a slice of native memory
+     *
+     * @param bytes the size of the slice
+     * @return the slice, in native byte order
+     * @throws IllegalArgumentException if the size exceeds a single buffer limit (2GB)
+     */
+    private synchronized ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Off-heap allocation is limited to 2GB per buffer");
+        int size = (int) ((bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT);
+        allocated += size;
+
+        ByteBuffer slice;
+        if (size > CHUNK_SIZE / 4) {
+            slice = ByteBuffer.allocateDirect(size);
+            chunks.add(slice);
+        } else {
+            if (current == null || current.remaining() < size) {
+                current = ByteBuffer.allocateDirect(CHUNK_SIZE);
+                chunks.add(current);
+            }
+            slice = current.slice(current.position(), size);
+            current.position(current.position() + size);
+        }
+        return slice.order(ByteOrder.nativeOrder());
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -27,6 +28,20 @@ public class Polygon extends Geometry {
      * The size of the polygon - the amount of the vertices in the polygon
      */
     private final int size;
+    /**
+     * The dominant axis of the normal (0 - x, 1 - y, 2 - z) - the polygon is projected along it
+     * onto the plane of the two other axes
+     */
+    private final int axis;
+    /**
+     * The plane equation constant - the dot product of the normal and any point of the polygon
+     */
+    private final double distance;
+    /**
+     * The equations (a, b, c) of the projected edges - a*u + b*v + c is the distance of the
+     * projected point (u, v) from the edge, positive inside the polygon
+     */
+    private final double[] edges;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -60,6 +75,12 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+        Vector normal = plane.getNormal();
+        double nx = Math.abs(normal.getX()), ny = Math.abs(normal.getY()), nz = Math.abs(normal.getZ());
+        axis = nx >= ny && nx >= nz ? 0 : ny >= nz ? 1 : 2;
+        distance = normal.getX() * vertices[0].getX() + normal.getY() * vertices[0].getY()
+                + normal.getZ() * vertices[0].getZ();
+        edges = edgeEquations();
         if (cbr)
         {
             box = new Border();
@@ -111,48 +132,129 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
-    @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray , double maxDistance) {
+    /**
+     * The u coordinate of a point projected along the dominant axis
+     *
+     * @param x the x of the point
+     * @param y the y of the point
+     * @param z the z of the point
+     * @return the first remaining coordinate
+     */
+    private double projectU(double x, double y, double z) {
+        return axis == 0 ? y : x;
+    }
 
-        List<GeoPoint> result = plane.findGeoIntersections(ray);
+    /**
+     * The v coordinate of a point projected along the dominant axis
+     *
+     * @param x the x of the point
+     * @param y the y of the point
+     * @param z the z of the point
+     * @return the second remaining coordinate
+     */
+    private double projectV(double x, double y, double z) {
+        return axis == 2 ? y : z;
+    }
 
-        if (result == null) {
-            return null;
+    /**
+     * Calculates the equations of the projected edges, oriented to be positive inside the polygon
+     *
+     * @return the coefficients (a, b, c) of the edges
+     */
+    private double[] edgeEquations() {
+        double[] u = new double[size];
+        double[] v = new double[size];
+        double centerU = 0, centerV = 0;
+        for (int i = 0; i < size; ++i) {
+            Point p = vertices.get(i);
+            u[i] = projectU(p.getX(), p.getY(), p.getZ());
+            v[i] = projectV(p.getX(), p.getY(), p.getZ());
+            centerU += u[i] / size;
+            centerV += v[i] / size;
         }
+        double[] equations = new double[size * 3];
+        for (int i = 0; i < size; ++i) {
+            int j = (i + 1) % size;
+            double a = v[i] - v[j];
+            double b = u[j] - u[i];
+            double length = Math.sqrt(a * a + b * b);
+            // a zero length edge is rejected by the validation of the vertices
+            if (length == 0) length = 1;
+            a /= length;
+            b /= length;
+            double c = -(a * u[i] + b * v[i]);
+            // the center of a convex polygon is inside it
+            double orientation = a * centerU + b * centerV + c < 0 ? -1 : 1;
+            equations[i * 3] = a * orientation;
+            equations[i * 3 + 1] = b * orientation;
+            equations[i * 3 + 2] = c * orientation;
+        }
+        return equations;
+    }
 
-        Point P0 = ray.getHead();
-        Vector v = ray.getDirection();
-
-        Point P1 = vertices.get(1);
-        Point P2 = vertices.get(0);
-
-        Vector v1 = P1.subtract(P0);
-        Vector v2 = P2.subtract(P0);
-
-        double sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = findClosestT(ray, maxDistance);
+        return t == NO_INTERSECTION ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-        if (isZero(sign)) {
-            return null;
-        }
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findClosestT(ray, maxDistance);
+        return t == NO_INTERSECTION ? null : new GeoPoint(this, ray.getPoint(t));
+    }
 
-        boolean positive = sign > 0;
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return findClosestT(ray, maxDistance) != NO_INTERSECTION;
+    }
 
-        //iterate through all vertices of the polygon
-        for (int i = vertices.size() - 1; i > 0; --i) {
-            v1 = v2;
-            v2 = vertices.get(i).subtract(P0);
+    /**
+     * Scalar polygon kernel - intersects the ray with the plane of the polygon and tests the
+     * intersection against the precomputed edge equations of the projected polygon, without
+     * creating any object. The points on the edges are not intersections.
+     *
+     * @param ray         the ray to intersect with the polygon
+     * @param maxDistance the maximum distance from the ray head
+     * @return the t of the intersection in range (0, maxDistance), or {@link #NO_INTERSECTION}
+     */
+    public double findClosestT(Ray ray, double maxDistance) {
+        Point p0 = ray.getHead();
+        Vector dir = ray.getDirection();
+        Vector normal = plane.getNormal();
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double nv = nx * dir.getX() + ny * dir.getY() + nz * dir.getZ();
+        if (isZero(nv))
+            return NO_INTERSECTION;
+        double t = alignZero((distance - nx * p0.getX() - ny * p0.getY() - nz * p0.getZ()) / nv);
+        if (t <= 0 || alignZero(t - maxDistance) >= 0)
+            return NO_INTERSECTION;
 
-            sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-            if (isZero(sign)) {
-                return null;
-            }
+        double x = p0.getX() + t * dir.getX();
+        double y = p0.getY() + t * dir.getY();
+        double z = p0.getZ() + t * dir.getZ();
+        double u = projectU(x, y, z);
+        double v = projectV(x, y, z);
+        for (int i = 0; i < edges.length; i += 3)
+            if (alignZero(edges[i] * u + edges[i + 1] * v + edges[i + 2]) <= 0)
+                return NO_INTERSECTION;
+        return t;
+    }
 
-            if (positive != (sign > 0)) {
-                return null;
-            }
+    /**
+     * Splits the polygon into a fan of triangles around its first vertex, with the material and the
+     * emission of the polygon - e.g. for packing them into the triangle meshes
+     *
+     * @return the triangles
+     */
+    public List<Triangle> triangulate() {
+        List<Triangle> triangles = new ArrayList<>(size - 2);
+        for (int i = 1; i < size - 1; ++i) {
+            Triangle triangle = new Triangle(vertices.get(0), vertices.get(i), vertices.get(i + 1));
+            triangle.setEmission(emission).setMaterial(getMaterial());
+            triangles.add(triangle);
         }
-
-        return List.of(new GeoPoint(this, result.get(0).point));
+        return triangles;
     }
 
 
@@ -4,7 +4,6 @@ import primitives.*;
 
 import static geometries.Intersectable.GeoPoint;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -18,6 +17,10 @@ public class Sphere extends RadialGeometry {
      * The center point of the sphere.
      */
     private final Point center;
+    /**
+     * The squared radius, kept for the intersection kernel
+     */
+    private final double radiusSquared;
 
     /**
      * Constructs a sphere with the specified radius and center point.
@@ -28,6 +31,7 @@ public class Sphere extends RadialGeometry {
     public Sphere(double radius, Point center) {
         super(radius);
         this.center = center;
+        this.radiusSquared = radius * radius;
         if (cbr) {
             double minX = center.getX() - radius;
             double maxX = center.getX() + radius;
@@ -49,55 +53,100 @@ public class Sphere extends RadialGeometry {
 
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<Point> intersections = this.findIntersectionsHelp(ray, maxDistance);
-        return intersections == null ? null
-                : intersections.stream().map(point -> new GeoPoint(this, point)).toList();
-    }
-
-
-
-    private List<Point> findIntersectionsHelp(Ray ray, double maxDistance) {
-        //(-1,0,0) (3,1,0)
         Point p0 = ray.getHead();
-        Vector vDir = ray.getDirection();
-
-        // Deals with case where ray starts from the center of the sphere
-        if (p0.equals(center))  //one point
-            return List.of(ray.getPoint(this.radius));
+        Vector v = ray.getDirection();
 
         // Finding the hypotenuse, base and perpendicular of the triangle formed by
         // ray's starting point, the center of the sphere and the intersection point of
         // the ray and the perpendicular line crossing the sphere's center.
-        Vector uHypotenuse = this.center.subtract(p0);
-        double tmBase = vDir.dotProduct(uHypotenuse);
-        double dPerpendicular = Math.sqrt(uHypotenuse.dotProduct(uHypotenuse) - tmBase * tmBase);
-
-        // Dealing with a case in which the ray is perpendicular to the sphere at the
-        // intersection point.
-        if (dPerpendicular >= this.radius) // 0 points
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double d2 = ux * ux + uy * uy + uz * uz - tm * tm;
+
+        // Dealing with a case in which the ray's line is out of the sphere or tangent to it
+        if (d2 >= radiusSquared) // 0 points
             return null;
 
         // Returning intersection points, ensuring that only those intersected by the
         // ray are returned.
-        double thInside = Math.sqrt(Math.pow(this.radius, 2) - Math.pow(dPerpendicular, 2));
-
-        double t1 = tmBase - thInside;
-        double t2 = tmBase + thInside;
+        double th = Math.sqrt(radiusSquared - d2);
+        double t1 = tm - th;
+        double t2 = tm + th;
 
-        boolean t1Valid = alignZero(t1) > 0 && alignZero(t1 - maxDistance) < 0;
-        boolean t2Valid = alignZero(t2) > 0 && alignZero(t2 - maxDistance) < 0;
+        boolean t1Valid = isValid(t1, maxDistance);
+        boolean t2Valid = isValid(t2, maxDistance);
 
         if (t1Valid && t2Valid) // 2 points
-            return List.of(ray.getPoint(t1), ray.getPoint(t2));
-
+            return List.of(new GeoPoint(this, ray.getPoint(t1)), new GeoPoint(this, ray.getPoint(t2)));
         else if (t1Valid)  // 1 point
-            return List.of(ray.getPoint(t1));
-
+            return List.of(new GeoPoint(this, ray.getPoint(t1)));
         else if (t2Valid)  // 1 point
-            return List.of(ray.getPoint(t2));
+            return List.of(new GeoPoint(this, ray.getPoint(t2)));
 
         return null; // else 0 points
     }
-}
 
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findClosestT(ray, maxDistance);
+        return t == NO_INTERSECTION ? null : new GeoPoint(this, ray.getPoint(t));
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return isOccluding(ray, maxDistance);
+    }
 
+    /**
+     * Scalar sphere kernel - calculates the ray parameter of the nearest intersection of the ray
+     * with the sphere without creating any object.
+     *
+     * @param ray         the ray to intersect with the sphere
+     * @param maxDistance the maximum distance from the ray head
+     * @return the nearest t in range (0, maxDistance), or {@link #NO_INTERSECTION}
+     */
+    public double findClosestT(Ray ray, double maxDistance) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+
+        double ux = center.getX() - p0.getX();
+        double uy = center.getY() - p0.getY();
+        double uz = center.getZ() - p0.getZ();
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
+        double d2 = ux * ux + uy * uy + uz * uz - tm * tm;
+        if (d2 >= radiusSquared)
+            return NO_INTERSECTION;
+
+        double th = Math.sqrt(radiusSquared - d2);
+        // the nearer root first - if it is behind the head the farther one may still be valid
+        if (isValid(tm - th, maxDistance))
+            return tm - th;
+        if (isValid(tm + th, maxDistance))
+            return tm + th;
+        return NO_INTERSECTION;
+    }
+
+    /**
+     * Fast occlusion-only variant of the kernel
+     *
+     * @param ray         the ray to intersect with the sphere
+     * @param maxDistance the maximum distance from the ray head
+     * @return true if the ray intersects the sphere in range (0, maxDistance)
+     */
+    public boolean isOccluding(Ray ray, double maxDistance) {
+        return findClosestT(ray, maxDistance) != NO_INTERSECTION;
+    }
+
+    /**
+     * Checks whether a ray parameter is in range (0, maxDistance)
+     *
+     * @param t           the ray parameter
+     * @param maxDistance the maximum distance from the ray head
+     * @return true if the parameter represents a valid intersection
+     */
+    private static boolean isValid(double t, double maxDistance) {
+        return alignZero(t) > 0 && alignZero(t - maxDistance) < 0;
+    }
+}
@@ -0,0 +1,567 @@
+package geometries;
+
+import primitives.*;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.alignZeroF;
+import static primitives.Util.isZeroF;
+
+/**
+ * Single precision storage of many triangles ("fast mode").<br>
+ * The vertices are kept in a flat float buffer and the triangles are organized
+ * in a flat bounding volume hierarchy with float bounds. The intersections are
+ * calculated in float precision.<br>
+ * The buffers are either on the heap or off-heap in an {@link OffHeapArena}. The mesh
+ * keeps also the normals and a surface index of the triangles, so the original
+ * triangles are not referenced, and it creates a light {@link Face} for each found point.
+ * The surfaces are kept by value, so triangles with equal emissions and materials share
+ * one palette entry even when each of them has its own Color and Material objects.<br>
+ * The construction takes the triangle objects, so they must all be on the heap while
+ * the mesh is built; they can be released afterwards.
+ */
+public class TriangleMesh extends Intersectable {
+    /**
+     * Maximum amount of triangles in a leaf node of the hierarchy
+     */
+    private static final int LEAF_SIZE = 4;
+    /**
+     * Amount of floats per triangle: the first vertex and the two edges from it
+     */
+    private static final int TRIANGLE_FLOATS = 9;
+    /**
+     * Amount of floats per node bounds: minimum x, y, z and maximum x, y, z
+     */
+    private static final int NODE_FLOATS = 6;
+    /**
+     * Replacement of a zero direction component in the slab test
+     */
+    private static final float PARALLEL = 1e-30f;
+
+    /** Traversal mode - all the intersections */
+    private static final int ALL = 0;
+    /** Traversal mode - the closest intersection */
+    private static final int CLOSEST = 1;
+    /** Traversal mode - any intersection */
+    private static final int ANY = 2;
+
+    /**
+     * Vertex buffer - per triangle: v0, v1 - v0, v2 - v0
+     */
+    private final FloatBuffer vertices;
+    /**
+     * Node bounds buffer
+     */
+    private final FloatBuffer bounds;
+    /**
+     * Node data buffer - per node: first triangle (or left child for inner node) and triangles count
+     * (0 for inner node, the right child follows the left one)
+     */
+    private final IntBuffer nodes;
+    /**
+     * Depth of the hierarchy, used for the traversal stack size
+     */
+    private final int depth;
+    /**
+     * Normals of the triangles
+     */
+    private final FloatBuffer normals;
+    /**
+     * Index of the surface in the {@link #surfaces} palette per triangle
+     */
+    private final IntBuffer surfaceIndices;
+    /**
+     * Palette of the distinct surfaces (emission and material) - a source triangle for each
+     */
+    private final Geometry[] surfaces;
+
+    /**
+     * The value of a surface - the emission and the material fields, the key of the palette
+     *
+     * @param red         the red of the emission
+     * @param green       the green of the emission
+     * @param blue        the blue of the emission
+     * @param kd          the diffuse coefficient
+     * @param ks          the specular coefficient
+     * @param kt          the transparency coefficient
+     * @param kr          the reflection coefficient
+     * @param shininess   the shininess
+     * @param glossiness  the glossiness
+     * @param diffuseness the diffuseness
+     */
+    private record Surface(double red, double green, double blue, Double3 kd, Double3 ks, Double3 kt, Double3 kr,
+                           int shininess, double glossiness, double diffuseness) {
+        /**
+         * The surface of a geometry
+         *
+         * @param geometry the geometry
+         */
+        Surface(Geometry geometry) {
+            this(geometry.getEmission().getRed(), geometry.getEmission().getGreen(),
+                    geometry.getEmission().getBlue(), geometry.getMaterial().kd, geometry.getMaterial().ks,
+                    geometry.getMaterial().kt, geometry.getMaterial().kr, geometry.getMaterial().shininess,
+                    geometry.getMaterial().glossiness, geometry.getMaterial().diffuseness);
+        }
+    }
+
+    /**
+     * Constructs the mesh from triangles, on the heap
+     *
+     * @param triangles the triangles to store in single precision
+     */
+    public TriangleMesh(List<Triangle> triangles) {
+        this(triangles, null);
+    }
+
+    /**
+     * Constructs the mesh from triangles
+     *
+     * @param triangles the triangles to store in single precision
+     * @param arena     the arena for off-heap storage, or null for heap storage
+     */
+    public TriangleMesh(List<Triangle> triangles, OffHeapArena arena) {
+        int size = triangles.size();
+        if (size == 0)
+            throw new IllegalArgumentException("A mesh can't be empty");
+
+        Triangle[] source = triangles.toArray(new Triangle[0]);
+        HierarchyBuilder hierarchy = new HierarchyBuilder(source);
+        depth = hierarchy.depth;
+        bounds = floats(arena, hierarchy.bounds, hierarchy.nodesCount * NODE_FLOATS);
+        nodes = ints(arena, hierarchy.nodes, hierarchy.nodesCount * 2);
+
+        // store the triangles in the order of the leaves
+        float[] vertexData = new float[size * TRIANGLE_FLOATS];
+        float[] normalData = new float[size * 3];
+        int[] surfaceData = new int[size];
+        List<Geometry> palette = new ArrayList<>();
+        Map<Surface, Integer> paletteIndex = new HashMap<>();
+        for (int i = 0; i < size; ++i) {
+            Triangle triangle = source[hierarchy.order[i]];
+            Point p0 = triangle.vertices.get(0);
+            Point p1 = triangle.vertices.get(1);
+            Point p2 = triangle.vertices.get(2);
+            int base = i * TRIANGLE_FLOATS;
+            for (int axis = 0; axis < 3; ++axis) {
+                double c0 = coordinate(p0, axis);
+                vertexData[base + axis] = (float) c0;
+                vertexData[base + 3 + axis] = (float) (coordinate(p1, axis) - c0);
+                vertexData[base + 6 + axis] = (float) (coordinate(p2, axis) - c0);
+            }
+            Vector normal = triangle.getNormal(p0);
+            normalData[i * 3] = (float) normal.getX();
+            normalData[i * 3 + 1] = (float) normal.getY();
+            normalData[i * 3 + 2] = (float) normal.getZ();
+            surfaceData[i] = paletteIndex.computeIfAbsent(new Surface(triangle), surface -> {
+                palette.add(triangle);
+                return palette.size() - 1;
+            });
+        }
+        vertices = floats(arena, vertexData, vertexData.length);
+        normals = floats(arena, normalData, normalData.length);
+        surfaceIndices = ints(arena, surfaceData, size);
+        surfaces = palette.toArray(new Geometry[0]);
+
+        box = new Border(bounds.get(0), bounds.get(1), bounds.get(2), bounds.get(3), bounds.get(4), bounds.get(5));
+    }
+
+    /**
+     * Creates a float buffer with the data - wrapping it on the heap or copying it off-heap
+     *
+     * @param arena the arena, null for heap
+     * @param data  the data
+     * @param size  the amount of the data to use
+     * @return the buffer
+     */
+    private static FloatBuffer floats(OffHeapArena arena, float[] data, int size) {
+        return arena == null ? FloatBuffer.wrap(Arrays.copyOf(data, size))
+                : arena.allocateFloats(size).put(0, data, 0, size);
+    }
+
+    /**
+     * Creates an int buffer with the data - wrapping it on the heap or copying it off-heap
+     *
+     * @param arena the arena, null for heap
+     * @param data  the data
+     * @param size  the amount of the data to use
+     * @return the buffer
+     */
+    private static IntBuffer ints(OffHeapArena arena, int[] data, int size) {
+        return arena == null ? IntBuffer.wrap(Arrays.copyOf(data, size))
+                : arena.allocateInts(size).put(0, data, 0, size);
+    }
+
+    /**
+     * Gets a coordinate of a point by the axis index
+     *
+     * @param p    the point
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the coordinate
+     */
+    private static double coordinate(Point p, int axis) {
+        return axis == 0 ? p.getX() : axis == 1 ? p.getY() : p.getZ();
+    }
+
+    /**
+     * Temporary heap data of the hierarchy construction
+     */
+    private static class HierarchyBuilder {
+        /**
+         * The triangles
+         */
+        private final Triangle[] source;
+        /**
+         * The centroids of the triangles
+         */
+        private final float[] centroids;
+        /**
+         * The triangles order, partitioned by the construction
+         */
+        private final int[] order;
+        /**
+         * Node bounds
+         */
+        private final float[] bounds;
+        /**
+         * Node data
+         */
+        private final int[] nodes;
+        /**
+         * Amount of used nodes
+         */
+        private int nodesCount = 1;
+        /**
+         * Depth of the hierarchy
+         */
+        private int depth = 0;
+
+        /**
+         * Builds the hierarchy of the triangles
+         *
+         * @param source the triangles
+         */
+        HierarchyBuilder(Triangle[] source) {
+            int size = source.length;
+            this.source = source;
+            // centroids of the triangles are used for splitting the nodes
+            centroids = new float[size * 3];
+            order = new int[size];
+            for (int i = 0; i < size; ++i) {
+                order[i] = i;
+                List<Point> v = source[i].vertices;
+                for (int axis = 0; axis < 3; ++axis)
+                    centroids[i * 3 + axis] = (float) ((coordinate(v.get(0), axis) + coordinate(v.get(1), axis)
+                            + coordinate(v.get(2), axis)) / 3);
+            }
+            bounds = new float[2 * size * NODE_FLOATS];
+            nodes = new int[2 * size * 2];
+            build(0, 0, size, 1);
+        }
+
+        /**
+         * Builds a node of the hierarchy for the triangles in a range of the order array
+         *
+         * @param node  the index of the node
+         * @param start first triangle in the range
+         * @param end   the end (exclusive) of the range
+         * @param level the level of the node in the hierarchy
+         */
+        private void build(int node, int start, int end, int level) {
+            if (level > depth) depth = level;
+
+            float[] b = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY,
+                    Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+            float[] c = b.clone();
+            for (int i = start; i < end; ++i) {
+                for (Point p : source[order[i]].vertices)
+                    for (int axis = 0; axis < 3; ++axis) {
+                        // round outwards so that the float box contains the double precision triangle
+                        float value = (float) coordinate(p, axis);
+                        b[axis] = Math.min(b[axis], Math.nextDown(value));
+                        b[axis + 3] = Math.max(b[axis + 3], Math.nextUp(value));
+                    }
+                for (int axis = 0; axis < 3; ++axis) {
+                    float value = centroids[order[i] * 3 + axis];
+                    c[axis] = Math.min(c[axis], value);
+                    c[axis + 3] = Math.max(c[axis + 3], value);
+                }
+            }
+            System.arraycopy(b, 0, bounds, node * NODE_FLOATS, NODE_FLOATS);
+
+            int count = end - start;
+            if (count <= LEAF_SIZE) {
+                nodes[node * 2] = start;
+                nodes[node * 2 + 1] = count;
+                return;
+            }
+
+            // split the longest axis of the centroids box in the middle
+            int axis = 0;
+            for (int i = 1; i < 3; ++i)
+                if (c[i + 3] - c[i] > c[axis + 3] - c[axis]) axis = i;
+            float middle = (c[axis] + c[axis + 3]) / 2;
+            int mid = start;
+            for (int i = start; i < end; ++i)
+                if (centroids[order[i] * 3 + axis] < middle) {
+                    int tmp = order[i];
+                    order[i] = order[mid];
+                    order[mid++] = tmp;
+                }
+            // all the centroids are on one side (e.g. identical centroids) - split by count
+            if (mid == start || mid == end)
+                mid = (start + end) / 2;
+
+            int left = nodesCount;
+            nodesCount += 2;
+            nodes[node * 2] = left;
+            nodes[node * 2 + 1] = 0;
+            build(left, start, mid, level + 1);
+            build(left + 1, mid, end, level + 1);
+        }
+    }
+
+    /**
+     * Triangle of the mesh, created for a found intersection point.
+     * It carries the normal and the surface (emission and material) of the stored triangle,
+     * and it intersects the stored triangle - so testing it again tests that triangle only.
+     */
+    private class Face extends Geometry {
+        /**
+         * The index of the triangle
+         */
+        private final int index;
+        /**
+         * The normal of the triangle
+         */
+        private final Vector normal;
+
+        /**
+         * Constructs the face
+         *
+         * @param index   the index of the triangle
+         * @param normal  the normal of the triangle
+         * @param surface a geometry with the same emission and material
+         */
+        Face(int index, Vector normal, Geometry surface) {
+            this.index = index;
+            this.normal = normal;
+            emission = surface.getEmission();
+            setMaterial(surface.getMaterial());
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            return normal;
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = intersect(index, ray, maxDistance);
+            return t == NO_INTERSECTION ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+        }
+
+        @Override
+        protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+            return intersect(index, ray, maxDistance) != NO_INTERSECTION;
+        }
+    }
+
+    /**
+     * Creates the intersection point with a triangle of the mesh
+     *
+     * @param i   the triangle index
+     * @param ray the ray
+     * @param t   the ray parameter of the intersection
+     * @return the intersection point
+     */
+    private GeoPoint geoPoint(int i, Ray ray, double t) {
+        Geometry geometry = new Face(i,
+                new Vector(normals.get(i * 3), normals.get(i * 3 + 1), normals.get(i * 3 + 2)),
+                surfaces[surfaceIndices.get(i)]);
+        return new GeoPoint(geometry, ray.getPoint(t));
+    }
+
+    /**
+     * Float slab test of a node bounds
+     *
+     * @param node the node index
+     * @param ox   ray head x
+     * @param oy   ray head y
+     * @param oz   ray head z
+     * @param ix   inverse of the ray direction x
+     * @param iy   inverse of the ray direction y
+     * @param iz   inverse of the ray direction z
+     * @param tMax the farthest distance of interest
+     * @return true if the ray's segment crosses the bounds
+     */
+    private boolean hitsNode(int node, float ox, float oy, float oz, float ix, float iy, float iz, float tMax) {
+        int b = node * NODE_FLOATS;
+        float t1 = (bounds.get(b) - ox) * ix;
+        float t2 = (bounds.get(b + 3) - ox) * ix;
+        float tMin = Math.min(t1, t2);
+        float tFar = Math.max(t1, t2);
+        t1 = (bounds.get(b + 1) - oy) * iy;
+        t2 = (bounds.get(b + 4) - oy) * iy;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tFar = Math.min(tFar, Math.max(t1, t2));
+        t1 = (bounds.get(b + 2) - oz) * iz;
+        t2 = (bounds.get(b + 5) - oz) * iz;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tFar = Math.min(tFar, Math.max(t1, t2));
+        return tMin <= tFar && tFar >= 0 && tMin <= tMax;
+    }
+
+    /**
+     * Float Moller-Trumbore kernel for a triangle of the vertex buffer
+     *
+     * @param i  the triangle index
+     * @param ox ray head x
+     * @param oy ray head y
+     * @param oz ray head z
+     * @param dx ray direction x
+     * @param dy ray direction y
+     * @param dz ray direction z
+     * @return the ray parameter of the intersection, or {@link #NO_INTERSECTION}
+     */
+    private double intersect(int i, float ox, float oy, float oz, float dx, float dy, float dz) {
+        int base = i * TRIANGLE_FLOATS;
+        float e1x = vertices.get(base + 3), e1y = vertices.get(base + 4), e1z = vertices.get(base + 5);
+        float e2x = vertices.get(base + 6), e2y = vertices.get(base + 7), e2z = vertices.get(base + 8);
+
+        // p = d x e2
+        float px = dy * e2z - dz * e2y;
+        float py = dz * e2x - dx * e2z;
+        float pz = dx * e2y - dy * e2x;
+        float det = e1x * px + e1y * py + e1z * pz;
+        // the ray is parallel to the triangle's plane
+        if (isZeroF(det)) return NO_INTERSECTION;
+        float invDet = 1f / det;
+
+        float sx = ox - vertices.get(base), sy = oy - vertices.get(base + 1), sz = oz - vertices.get(base + 2);
+        float u = (sx * px + sy * py + sz * pz) * invDet;
+        // a point on an edge or a vertex is not an intersection
+        if (alignZeroF(u) <= 0 || u >= 1) return NO_INTERSECTION;
+
+        // q = s x e1
+        float qx = sy * e1z - sz * e1y;
+        float qy = sz * e1x - sx * e1z;
+        float qz = sx * e1y - sy * e1x;
+        float v = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (alignZeroF(v) <= 0 || alignZeroF(u + v - 1) >= 0) return NO_INTERSECTION;
+
+        float t = alignZeroF((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        return t > 0 ? t : NO_INTERSECTION;
+    }
+
+    /**
+     * Intersects a ray with a triangle of the vertex buffer
+     *
+     * @param i           the triangle index
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the ray head
+     * @return the ray parameter of the intersection, or {@link #NO_INTERSECTION}
+     */
+    private double intersect(int i, Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        double t = intersect(i, (float) head.getX(), (float) head.getY(), (float) head.getZ(),
+                (float) dir.getX(), (float) dir.getY(), (float) dir.getZ());
+        return t == NO_INTERSECTION || alignZero(t - maxDistance) >= 0 ? NO_INTERSECTION : t;
+    }
+
+    /**
+     * Inverse of a direction component for the slab test. A zero component is replaced by a tiny one,
+     * so that a ray parallel to a slab and starting on its plane gets 0 instead of NaN (0 * infinity)
+     *
+     * @param d the direction component
+     * @return the inverse
+     */
+    private static float inverse(float d) {
+        return 1f / (d == 0 ? PARALLEL : d);
+    }
+
+    /**
+     * Traverses the hierarchy and collects the intersections
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the ray head
+     * @param mode        {@link #ALL}, {@link #CLOSEST} or {@link #ANY}
+     * @param all         the list for the intersections in {@link #ALL} mode
+     * @param out         array for the parameter of the found intersection
+     * @return the index of the found triangle (the closest one in {@link #CLOSEST} mode) or -1
+     */
+    private int traverse(Ray ray, double maxDistance, int mode, List<GeoPoint> all, double[] out) {
+        Point head = ray.getHead();
+        Vector dir = ray.getDirection();
+        float ox = (float) head.getX(), oy = (float) head.getY(), oz = (float) head.getZ();
+        float dx = (float) dir.getX(), dy = (float) dir.getY(), dz = (float) dir.getZ();
+        float ix = inverse(dx), iy = inverse(dy), iz = inverse(dz);
+
+        double best = maxDistance;
+        int found = -1;
+        int[] stack = new int[depth + 1];
+        int sp = 0;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (!hitsNode(node, ox, oy, oz, ix, iy, iz, (float) best)) continue;
+            int count = nodes.get(node * 2 + 1);
+            if (count == 0) {
+                stack[sp++] = nodes.get(node * 2);
+                stack[sp++] = nodes.get(node * 2) + 1;
+                continue;
+            }
+            for (int i = nodes.get(node * 2), end = i + count; i < end; ++i) {
+                double t = intersect(i, ox, oy, oz, dx, dy, dz);
+                if (t == NO_INTERSECTION || alignZero(t - best) >= 0) continue;
+                if (mode == ANY) {
+                    out[0] = t;
+                    return i;
+                }
+                if (mode == CLOSEST) {
+                    best = t;
+                    found = i;
+                } else
+                    all.add(geoPoint(i, ray, t));
+            }
+        }
+        if (out != null) out[0] = best;
+        return found;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = new LinkedList<>();
+        traverse(ray, maxDistance, ALL, intersections, null);
+        return intersections.isEmpty() ? null : intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] t = new double[1];
+        int i = traverse(ray, maxDistance, CLOSEST, null, t);
+        return i < 0 ? null : geoPoint(i, ray, t[0]);
+    }
+
+    @Override
+    protected boolean hasIntersectionHelper(Ray ray, double maxDistance) {
+        return traverse(ray, maxDistance, ANY, null, new double[1]) >= 0;
+    }
+
+    /**
+     * Amount of triangles in the mesh
+     *
+     * @return the size of the mesh
+     */
+    public int size() {
+        return vertices.capacity() / TRIANGLE_FLOATS;
+    }
+}
@@ -0,0 +1,91 @@
+package lighting;
+
+import primitives.*;
+
+/**
+ * Abstract class to represent a light source with an area, which casts soft shadows.<br>
+ * The light and its direction are those of a point light in the center of the area, and
+ * the shadows are sampled by rays towards points spread over the area: the sample
+ * points are mapped from the unit square, so the corners of the square are the extreme
+ * points of the area (for rays of the penumbra test) and evenly spread points of the
+ * square are evenly spread over the area.
+ */
+public abstract class AreaLight extends PointLight {
+
+    /**
+     * Constructor for AreaLight.
+     *
+     * @param intensity The intensity of the light.
+     * @param position  The center of the light area.
+     */
+    protected AreaLight(Color intensity, Point position) {
+        super(intensity, position);
+    }
+
+    /**
+     * Maps a point of the unit square onto the light area, as seen from a lit point
+     *
+     * @param p the lit point
+     * @param u the first coordinate in [0, 1]
+     * @param v the second coordinate in [0, 1]
+     * @return the point of the light area
+     */
+    public abstract Point getSamplePoint(Point p, double u, double v);
+
+    /**
+     * Maps a point of the unit square onto the unit disk, by the concentric mapping of Shirley
+     * and Chiu - it keeps the relative areas, and the corners of the square are mapped onto the
+     * diagonals of the disk.
+     *
+     * @param u the first coordinate in [0, 1]
+     * @param v the second coordinate in [0, 1]
+     * @return the x and y of the point of the disk
+     */
+    protected static double[] concentric(double u, double v) {
+        double a = 2 * u - 1;
+        double b = 2 * v - 1;
+        if (a == 0 && b == 0) return new double[]{0, 0};
+        double radius;
+        double angle;
+        if (Math.abs(a) > Math.abs(b)) {
+            radius = a;
+            angle = Math.PI / 4 * (b / a);
+        } else {
+            radius = b;
+            angle = Math.PI / 2 - Math.PI / 4 * (a / b);
+        }
+        return new double[]{radius * Math.cos(angle), radius * Math.sin(angle)};
+    }
+
+    /**
+     * Finds a unit vector orthogonal to a vector
+     *
+     * @param n the vector (normalized)
+     * @return the orthogonal vector
+     */
+    protected static Vector orthogonal(Vector n) {
+        double a = n.getX();
+        double b = n.getY();
+        double c = n.getZ();
+        return (a == b && b == c) ? new Vector(0, -a, a).normalize()
+                : new Vector(b - c, c - a, a - b).normalize();
+    }
+
+    /**
+     * Adds a point of a disk to its center
+     *
+     * @param center the center of the disk
+     * @param right  the first axis of the disk, its length is the radius
+     * @param up     the second axis of the disk, its length is the radius
+     * @param u      the first coordinate of the unit square in [0, 1]
+     * @param v      the second coordinate of the unit square in [0, 1]
+     * @return the point of the disk
+     */
+    protected static Point diskPoint(Point center, Vector right, Vector up, double u, double v) {
+        double[] xy = concentric(u, v);
+        Point point = center;
+        if (!Util.isZero(xy[0])) point = point.add(right.scale(xy[0]));
+        if (!Util.isZero(xy[1])) point = point.add(up.scale(xy[1]));
+        return point;
+    }
+}
@@ -0,0 +1,42 @@
+package lighting;
+
+import primitives.*;
+
+/**
+ * Disk area light - a round light panel.
+ */
+public class DiskLight extends AreaLight {
+
+    /**
+     * The first axis of the disk, its length is the radius
+     */
+    private final Vector right;
+    /**
+     * The second axis of the disk, its length is the radius
+     */
+    private final Vector up;
+
+    /**
+     * Constructor for DiskLight.
+     *
+     * @param intensity The intensity of the light.
+     * @param position  The center of the disk.
+     * @param normal    The normal of the disk plane.
+     * @param radius    The radius of the disk.
+     */
+    public DiskLight(Color intensity, Point position, Vector normal, double radius) {
+        super(intensity, position);
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        Vector n = normal.normalize();
+        Vector axis = orthogonal(n);
+        right = axis.scale(radius);
+        up = n.crossProduct(axis).scale(radius);
+    }
+
+    @Override
+    public Point getSamplePoint(Point p, double u, double v) {
+        return diskPoint(position, right, up, u, v);
+    }
+}
@@ -0,0 +1,139 @@
+package lighting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distribution of the light sources for choosing a few of them randomly, in
+ * proportion to their power (the strongest color component of their intensity).<br>
+ * The point lights (and the lights derived from them) are chosen in constant time by
+ * an alias table (of Walker and Vose), so the cost of a choice does not depend on the
+ * amount of the lights. The other lights (e.g. directional lights) are not sampled -
+ * they are always evaluated.
+ */
+public class LightDistribution {
+    /**
+     * The lights which are always evaluated
+     */
+    private final List<LightSource> unsampled;
+    /**
+     * The sampled lights
+     */
+    private final LightSource[] lights;
+    /**
+     * Probability of each sampled light
+     */
+    private final double[] pdf;
+    /**
+     * Probability of keeping the light of a column of the alias table
+     */
+    private final double[] keep;
+    /**
+     * The alternative light of a column of the alias table
+     */
+    private final int[] alias;
+
+    /**
+     * Builds the distribution of lights
+     *
+     * @param lightSources the light sources
+     */
+    public LightDistribution(List<LightSource> lightSources) {
+        List<LightSource> always = new ArrayList<>();
+        List<LightSource> sampled = new ArrayList<>();
+        List<Double> powers = new ArrayList<>();
+        double total = 0;
+        for (LightSource light : lightSources) {
+            if (light instanceof PointLight pointLight) {
+                double power = Math.max(pointLight.intensity.getRed(),
+                        Math.max(pointLight.intensity.getGreen(), pointLight.intensity.getBlue()));
+                if (power <= 0) continue; // never contributes
+                sampled.add(light);
+                powers.add(power);
+                total += power;
+            } else {
+                always.add(light);
+            }
+        }
+        unsampled = Collections.unmodifiableList(always);
+        int n = sampled.size();
+        lights = sampled.toArray(new LightSource[0]);
+        pdf = new double[n];
+        keep = new double[n];
+        alias = new int[n];
+
+        // Vose's alias method: the columns below the average are topped up by the ones above it
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smalls = 0;
+        int larges = 0;
+        for (int i = 0; i < n; ++i) {
+            pdf[i] = powers.get(i) / total;
+            keep[i] = pdf[i] * n;
+            if (keep[i] < 1) small[smalls++] = i;
+            else large[larges++] = i;
+        }
+        while (smalls > 0 && larges > 0) {
+            int s = small[--smalls];
+            int l = large[--larges];
+            alias[s] = l;
+            keep[l] -= 1 - keep[s];
+            if (keep[l] < 1) small[smalls++] = l;
+            else large[larges++] = l;
+        }
+        // the rest are full columns (up to rounding errors)
+        while (larges > 0) keep[large[--larges]] = 1;
+        while (smalls > 0) keep[small[--smalls]] = 1;
+    }
+
+    /**
+     * The lights which are not sampled and must always be evaluated
+     *
+     * @return the lights
+     */
+    public List<LightSource> getUnsampled() {
+        return unsampled;
+    }
+
+    /**
+     * Amount of the sampled lights
+     *
+     * @return the amount of lights
+     */
+    public int size() {
+        return lights.length;
+    }
+
+    /**
+     * A sampled light by its index
+     *
+     * @param index the index of the light
+     * @return the light
+     */
+    public LightSource get(int index) {
+        return lights[index];
+    }
+
+    /**
+     * Probability of choosing a sampled light
+     *
+     * @param index the index of the light
+     * @return the probability
+     */
+    public double pdf(int index) {
+        return pdf[index];
+    }
+
+    /**
+     * Chooses a sampled light in proportion to the powers of the lights
+     *
+     * @param u uniform random number in [0, 1)
+     * @return the index of the chosen light
+     */
+    public int sample(double u) {
+        double column = u * lights.length;
+        int i = Math.min((int) column, lights.length - 1);
+        return column - i < keep[i] ? i : alias[i];
+    }
+}
@@ -0,0 +1,210 @@
+package lighting;
+
+import primitives.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Spatial index of the light sources by their influence radius, for culling the
+ * lights which are too far from a lit point to matter.<br>
+ * The index is a uniform grid over the influence spheres of the point lights. Every
+ * cell keeps the lights whose sphere overlaps the cell together with the lights of
+ * unlimited influence (directional lights, lights without attenuation), so the
+ * lights of a point are found by a single cell lookup.
+ */
+public class LightIndex {
+    /**
+     * Maximal amount of cells along an axis
+     */
+    private static final int MAX_CELLS = 64;
+
+    /**
+     * The lights of unlimited influence - the lights of the points out of the grid
+     */
+    private final List<LightSource> unbounded;
+    /**
+     * Distribution of the lights of unlimited influence
+     */
+    private final LightDistribution unboundedDistribution;
+    /**
+     * The lights of each cell, x major
+     */
+    private final List<LightSource>[] cells;
+    /**
+     * Distributions of the lights of the cells, created on their first use
+     */
+    private final LightDistribution[] distributions;
+    /**
+     * Minimal corner of the grid
+     */
+    private final double minX, minY, minZ;
+    /**
+     * Size of a cell
+     */
+    private final double cellSize;
+    /**
+     * Amount of cells along each axis
+     */
+    private final int nX, nY, nZ;
+
+    /**
+     * Builds the index of lights
+     *
+     * @param lights    the light sources
+     * @param threshold the intensity (of the strongest color component) below which a light is negligible
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LightIndex(List<LightSource> lights, double threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        List<LightSource> unboundedLights = new ArrayList<>();
+        List<PointLight> bounded = new ArrayList<>();
+        List<Double> radii = new ArrayList<>();
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        double radiusSum = 0;
+        for (LightSource light : lights) {
+            double radius = light.getInfluenceRadius(threshold);
+            if (radius == 0) continue; // never matters
+            if (Double.isInfinite(radius) || !(light instanceof PointLight pointLight)) {
+                unboundedLights.add(light);
+                continue;
+            }
+            Point p = pointLight.position;
+            x0 = Math.min(x0, p.getX() - radius);
+            y0 = Math.min(y0, p.getY() - radius);
+            z0 = Math.min(z0, p.getZ() - radius);
+            x1 = Math.max(x1, p.getX() + radius);
+            y1 = Math.max(y1, p.getY() + radius);
+            z1 = Math.max(z1, p.getZ() + radius);
+            bounded.add(pointLight);
+            radii.add(radius);
+            radiusSum += radius;
+        }
+        unbounded = Collections.unmodifiableList(unboundedLights);
+        unboundedDistribution = new LightDistribution(unbounded);
+
+        if (bounded.isEmpty()) {
+            minX = minY = minZ = cellSize = 0;
+            nX = nY = nZ = 0;
+            cells = new List[0];
+            distributions = new LightDistribution[0];
+            return;
+        }
+        // cells of about the average influence radius
+        double extent = Math.max(x1 - x0, Math.max(y1 - y0, z1 - z0));
+        double size = Math.max(radiusSum / bounded.size(), extent / MAX_CELLS);
+        minX = x0;
+        minY = y0;
+        minZ = z0;
+        cellSize = size;
+        nX = Math.max(1, (int) Math.ceil((x1 - x0) / size));
+        nY = Math.max(1, (int) Math.ceil((y1 - y0) / size));
+        nZ = Math.max(1, (int) Math.ceil((z1 - z0) / size));
+
+        List<LightSource>[] lists = new List[nX * nY * nZ];
+        for (int l = 0; l < bounded.size(); ++l) {
+            Point p = bounded.get(l).position;
+            double radius = radii.get(l);
+            int i0 = cell(p.getX() - radius, minX, nX), i1 = cell(p.getX() + radius, minX, nX);
+            int j0 = cell(p.getY() - radius, minY, nY), j1 = cell(p.getY() + radius, minY, nY);
+            int k0 = cell(p.getZ() - radius, minZ, nZ), k1 = cell(p.getZ() + radius, minZ, nZ);
+            for (int i = i0; i <= i1; ++i)
+                for (int j = j0; j <= j1; ++j)
+                    for (int k = k0; k <= k1; ++k)
+                        if (overlaps(p, radius, i, j, k)) {
+                            int index = (i * nY + j) * nZ + k;
+                            if (lists[index] == null) lists[index] = new ArrayList<>(unbounded);
+                            lists[index].add(bounded.get(l));
+                        }
+        }
+        for (int c = 0; c < lists.length; ++c)
+            lists[c] = lists[c] == null ? unbounded : Collections.unmodifiableList(lists[c]);
+        cells = lists;
+        distributions = new LightDistribution[lists.length];
+    }
+
+    /**
+     * Finds the lights which may be significant at a point
+     *
+     * @param point the lit point
+     * @return the lights (of the point's cell)
+     */
+    public List<LightSource> getLights(Point point) {
+        int cell = cellOf(point);
+        return cell < 0 ? unbounded : cells[cell];
+    }
+
+    /**
+     * Finds the distribution for choosing randomly among the lights which may be significant at a point
+     *
+     * @param point the lit point
+     * @return the distribution of the lights (of the point's cell)
+     */
+    public LightDistribution getDistribution(Point point) {
+        int cell = cellOf(point);
+        if (cell < 0 || cells[cell] == unbounded) return unboundedDistribution;
+        // a race creates equal distributions, any of them may be kept
+        LightDistribution distribution = distributions[cell];
+        if (distribution == null) distributions[cell] = distribution = new LightDistribution(cells[cell]);
+        return distribution;
+    }
+
+    /**
+     * Finds the cell of a point
+     *
+     * @param point the point
+     * @return the index of the cell, -1 if the point is out of the grid
+     */
+    private int cellOf(Point point) {
+        if (cells.length == 0) return -1;
+        double x = (point.getX() - minX) / cellSize;
+        double y = (point.getY() - minY) / cellSize;
+        double z = (point.getZ() - minZ) / cellSize;
+        if (!(x >= 0 && x < nX && y >= 0 && y < nY && z >= 0 && z < nZ)) return -1;
+        return ((int) x * nY + (int) y) * nZ + (int) z;
+    }
+
+    /**
+     * Index of the cell of a coordinate, clamped into the grid
+     *
+     * @param value the coordinate
+     * @param min   the minimal coordinate of the grid
+     * @param n     the amount of cells along the axis
+     * @return the index of the cell
+     */
+    private int cell(double value, double min, int n) {
+        return Math.max(0, Math.min(n - 1, (int) ((value - min) / cellSize)));
+    }
+
+    /**
+     * Checks whether an influence sphere overlaps a cell
+     *
+     * @param center the center of the sphere
+     * @param radius the radius of the sphere
+     * @param i      the x index of the cell
+     * @param j      the y index of the cell
+     * @param k      the z index of the cell
+     * @return true if the sphere and the cell overlap
+     */
+    private boolean overlaps(Point center, double radius, int i, int j, int k) {
+        double dx = gap(center.getX(), minX + i * cellSize);
+        double dy = gap(center.getY(), minY + j * cellSize);
+        double dz = gap(center.getZ(), minZ + k * cellSize);
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    /**
+     * Distance of a coordinate from a cell interval along an axis
+     *
+     * @param value the coordinate
+     * @param min   the minimum of the interval
+     * @return the distance, 0 inside the interval
+     */
+    private double gap(double value, double min) {
+        return value < min ? min - value : Math.max(0, value - min - cellSize);
+    }
+}
@@ -28,4 +28,14 @@ public interface LightSource {
      */
     public double getDistance(Point point);
 
+    /**
+     * Get the radius around the light source beyond which its intensity is negligible.
+     *
+     * @param threshold the intensity (of the strongest color component) below which the light is negligible
+     * @return the radius, infinity if the light does not weaken with the distance
+     */
+    public default double getInfluenceRadius(double threshold) {
+        return Double.POSITIVE_INFINITY;
+    }
+
 }
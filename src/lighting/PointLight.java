@@ -7,7 +7,7 @@ import primitives.*;
  */
 public class PointLight extends Light implements LightSource {
 
-    private Point position;
+    protected Point position;
     private double kC = 1.0;
     private double kL = 0.0;
     private double kQ = 0.0;
@@ -91,6 +91,17 @@ public class PointLight extends Light implements LightSource {
         return point.distance(position);
     }
 
+    @Override
+    public double getInfluenceRadius(double threshold) {
+        // the distance where kC + kL * d + kQ * d^2 reaches intensity / threshold
+        double attenuation = Math.max(intensity.getRed(), Math.max(intensity.getGreen(), intensity.getBlue()))
+                / threshold;
+        if (attenuation <= kC) return 0;
+        if (kQ > 0) return (-kL + Math.sqrt(kL * kL + 4 * kQ * (attenuation - kC))) / (2 * kQ);
+        if (kL > 0) return (attenuation - kC) / kL;
+        return Double.POSITIVE_INFINITY;
+    }
+
 //    @Override
 //    public double getDistance(Point p) {
 //        return position.distance(p);
@@ -0,0 +1,40 @@
+package lighting;
+
+import primitives.*;
+
+/**
+ * Rectangular area light - a light panel.
+ */
+public class RectangleLight extends AreaLight {
+
+    /**
+     * The first edge of the rectangle
+     */
+    private final Vector edgeU;
+    /**
+     * The second edge of the rectangle
+     */
+    private final Vector edgeV;
+
+    /**
+     * Constructor for RectangleLight.
+     *
+     * @param intensity The intensity of the light.
+     * @param position  The center of the rectangle.
+     * @param edgeU     The first edge of the rectangle (its direction and length).
+     * @param edgeV     The second edge of the rectangle (its direction and length).
+     */
+    public RectangleLight(Color intensity, Point position, Vector edgeU, Vector edgeV) {
+        super(intensity, position);
+        this.edgeU = edgeU;
+        this.edgeV = edgeV;
+    }
+
+    @Override
+    public Point getSamplePoint(Point p, double u, double v) {
+        Point point = position;
+        if (!Util.isZero(u - 0.5)) point = point.add(edgeU.scale(u - 0.5));
+        if (!Util.isZero(v - 0.5)) point = point.add(edgeV.scale(v - 0.5));
+        return point;
+    }
+}
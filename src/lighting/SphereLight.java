@@ -0,0 +1,37 @@
+package lighting;
+
+import primitives.*;
+
+/**
+ * Spherical area light - a light bulb.<br>
+ * The sample points are on the disk of the sphere's silhouette as seen from the lit point.
+ */
+public class SphereLight extends AreaLight {
+
+    /**
+     * The radius of the sphere
+     */
+    private final double radius;
+
+    /**
+     * Constructor for SphereLight.
+     *
+     * @param intensity The intensity of the light.
+     * @param position  The center of the sphere.
+     * @param radius    The radius of the sphere.
+     */
+    public SphereLight(Color intensity, Point position, double radius) {
+        super(intensity, position);
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        this.radius = radius;
+    }
+
+    @Override
+    public Point getSamplePoint(Point p, double u, double v) {
+        Vector l = getL(p);
+        Vector axis = orthogonal(l);
+        return diskPoint(position, axis.scale(radius), l.crossProduct(axis).scale(radius), u, v);
+    }
+}
@@ -14,7 +14,7 @@ public class Color {
      * The internal fields maintain RGB components as double numbers from 0 to
      * whatever...
      */
-    private final Double3 rgb;
+    final Double3 rgb;
 
     /**
      * Black color = (0,0,0)
@@ -84,6 +84,33 @@ public class Color {
         return new java.awt.Color(ir, ig, ib);
     }
 
+    /**
+     * Red component getter
+     *
+     * @return the red component (0..255 for printed colors, or more)
+     */
+    public double getRed() {
+        return rgb.d1;
+    }
+
+    /**
+     * Green component getter
+     *
+     * @return the green component (0..255 for printed colors, or more)
+     */
+    public double getGreen() {
+        return rgb.d2;
+    }
+
+    /**
+     * Blue component getter
+     *
+     * @return the blue component (0..255 for printed colors, or more)
+     */
+    public double getBlue() {
+        return rgb.d3;
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
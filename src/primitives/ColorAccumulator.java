@@ -0,0 +1,84 @@
+package primitives;
+
+/**
+ * Mutable accumulator of colors for hot calculation paths (shading).<br>
+ * Unlike {@link Color} the operations update this object instead of creating new colors,
+ * so summing many (scaled) light contributions allocates nothing until the final
+ * {@link #toColor()}. An object of the class must be confined to a single thread.
+ */
+public class ColorAccumulator {
+    /** Red component */
+    private double r;
+    /** Green component */
+    private double g;
+    /** Blue component */
+    private double b;
+
+    /**
+     * Constructs an accumulator with black color
+     */
+    public ColorAccumulator() {
+    }
+
+    /**
+     * Resets the accumulator to black color
+     *
+     * @return this object
+     */
+    public ColorAccumulator reset() {
+        r = g = b = 0;
+        return this;
+    }
+
+    /**
+     * Adds a color
+     *
+     * @param color the color to add
+     * @return this object
+     */
+    public ColorAccumulator add(Color color) {
+        r += color.rgb.d1;
+        g += color.rgb.d2;
+        b += color.rgb.d3;
+        return this;
+    }
+
+    /**
+     * Adds a color scaled by a scalar
+     *
+     * @param color the color to add
+     * @param scale the scale factor, non-negative
+     * @return this object
+     */
+    public ColorAccumulator add(Color color, double scale) {
+        r += color.rgb.d1 * scale;
+        g += color.rgb.d2 * scale;
+        b += color.rgb.d3 * scale;
+        return this;
+    }
+
+    /**
+     * Adds a color scaled by two triads and a scalar (e.g. light intensity * transparency * kD * cos)
+     *
+     * @param color the color to add
+     * @param k1    first scale factor per rgb, non-negative
+     * @param k2    second scale factor per rgb, non-negative
+     * @param scale the scale factor, non-negative
+     * @return this object
+     */
+    public ColorAccumulator add(Color color, Double3 k1, Double3 k2, double scale) {
+        r += color.rgb.d1 * k1.d1 * k2.d1 * scale;
+        g += color.rgb.d2 * k1.d2 * k2.d2 * scale;
+        b += color.rgb.d3 * k1.d3 * k2.d3 * scale;
+        return this;
+    }
+
+    /**
+     * Creates the color of the accumulated sum
+     *
+     * @return the color
+     */
+    public Color toColor() {
+        return new Color(r, g, b);
+    }
+}
@@ -116,6 +116,14 @@ public class Double3 {
         return new Double3(d1 * rhs.d1, d2 * rhs.d2, d3 * rhs.d3);
     }
 
+    /**
+     * The biggest of the three numbers
+     * @return the maximal number
+     */
+    public double max() {
+        return Math.max(d1, Math.max(d2, d3));
+    }
+
     /**
      * Checks whether all the numbers are lower than a test number
      * @param  k the test number
@@ -136,4 +144,15 @@ public class Double3 {
     public boolean lowerThan(Double3 other) {
         return d1 < other.d1 && d2 < other.d2 && d3 < other.d3;
     }
+
+    /**
+     * Checks whether all the numbers of the product with another triad are lower than a test number,
+     * without creating the product triad
+     * @param  rhs right hand side operand for product
+     * @param  k   the test number
+     * @return true if all the numbers of the product are less than k, false otherwise
+     */
+    public boolean productLowerThan(Double3 rhs, double k) {
+        return d1 * rhs.d1 < k && d2 * rhs.d2 < k && d3 * rhs.d3 < k;
+    }
 }
@@ -0,0 +1,172 @@
+package primitives;
+
+/**
+ * Mutable three numbers vector for hot calculation paths (shading, intersections).<br>
+ * Unlike {@link Vector} every operation updates this object instead of creating a new one,
+ * so a chain of operations allocates nothing. An object of the class must be confined to a
+ * single thread, and it may be (temporarily) zero - the conversion into an immutable
+ * {@link Vector} checks that.
+ */
+public class MutableVector {
+    /** X coordinate */
+    private double x;
+    /** Y coordinate */
+    private double y;
+    /** Z coordinate */
+    private double z;
+
+    /**
+     * Constructs a zero vector
+     */
+    public MutableVector() {
+    }
+
+    /**
+     * Sets the coordinates
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return this object
+     */
+    public MutableVector set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the coordinates by a point (or a vector)
+     *
+     * @param p the point
+     * @return this object
+     */
+    public MutableVector set(Point p) {
+        return set(p.xyz.d1, p.xyz.d2, p.xyz.d3);
+    }
+
+    /**
+     * Adds a scaled vector (this + v * scale)
+     *
+     * @param v     the vector to add
+     * @param scale the scale of the added vector
+     * @return this object
+     */
+    public MutableVector addScaled(Vector v, double scale) {
+        return set(x + v.xyz.d1 * scale, y + v.xyz.d2 * scale, z + v.xyz.d3 * scale);
+    }
+
+    /**
+     * Scales the vector
+     *
+     * @param scale the scale factor
+     * @return this object
+     */
+    public MutableVector scale(double scale) {
+        return set(x * scale, y * scale, z * scale);
+    }
+
+    /**
+     * Normalizes the vector
+     *
+     * @return this object
+     * @throws IllegalArgumentException if the vector is zero
+     */
+    public MutableVector normalize() {
+        double length = length();
+        if (length == 0)
+            throw new IllegalArgumentException("Cannot normalize zero vector");
+        return scale(1 / length);
+    }
+
+    /**
+     * Reflects the vector by a normal: this - 2 * (this . n) * n
+     *
+     * @param n the normal (unit vector)
+     * @return this object
+     */
+    public MutableVector reflect(Vector n) {
+        return addScaled(n, -2 * dotProduct(n));
+    }
+
+    /**
+     * Dot product with a vector
+     *
+     * @param v the other vector
+     * @return the dot product
+     */
+    public double dotProduct(Vector v) {
+        return x * v.xyz.d1 + y * v.xyz.d2 + z * v.xyz.d3;
+    }
+
+    /**
+     * Dot product with another mutable vector
+     *
+     * @param v the other vector
+     * @return the dot product
+     */
+    public double dotProduct(MutableVector v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * Squared length of the vector
+     *
+     * @return the squared length
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Length of the vector
+     *
+     * @return the length
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Get the value of x.
+     *
+     * @return the value of x
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Get the value of y.
+     *
+     * @return the value of y
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Get the value of z.
+     *
+     * @return the value of z
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Creates an immutable vector with the same coordinates
+     *
+     * @return the vector
+     * @throws IllegalArgumentException if the vector is zero
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "~>(" + x + "," + y + "," + z + ")";
+    }
+}
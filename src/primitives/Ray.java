@@ -17,6 +17,14 @@ public class Ray {
      * The direction vector of the ray.
      */
     final private Vector direction;
+    /**
+     * The inverses of the direction components (infinite for a zero component), for the box tests
+     */
+    final private double inverseX, inverseY, inverseZ;
+    /**
+     * Whether the direction components are negative - the box sides a ray enters by, for the box tests
+     */
+    final private boolean negativeX, negativeY, negativeZ;
     private static final double DELTA = 0.1;
 
     /**
@@ -30,6 +38,12 @@ public class Ray {
         this.head = head;
         // Normalize the direction vector before storing it
         this.direction = direction.normalize();
+        inverseX = 1 / this.direction.getX();
+        inverseY = 1 / this.direction.getY();
+        inverseZ = 1 / this.direction.getZ();
+        negativeX = inverseX < 0;
+        negativeY = inverseY < 0;
+        negativeZ = inverseZ < 0;
     }
 
     /**
@@ -45,13 +59,23 @@ public class Ray {
      * that can cause the ray to incorrectly intersect with the surface it originates from.
      */
     public Ray(Point head, Vector direction, Vector normalToHead) {
-        this.direction = direction.normalize();
+        this(offsetHead(head, direction, normalToHead), direction);
+    }
+
+    /**
+     * Moves the head of a ray by {@link #DELTA} along the normal, towards the side of the direction
+     *
+     * @param head         the point on the surface
+     * @param direction    the direction of the ray
+     * @param normalToHead the normal vector at the head point
+     * @return the head point, unchanged if the direction is perpendicular to the normal
+     */
+    private static Point offsetHead(Point head, Vector direction, Vector normalToHead) {
         double result = direction.dotProduct(normalToHead);
         if (Util.isZero(result)) {
-            this.head = head;
-        } else {
-            this.head = head.add(normalToHead.scale(Util.alignZero(result) < 0 ? -DELTA : DELTA));
+            return head;
         }
+        return head.add(normalToHead.scale(Util.alignZero(result) < 0 ? -DELTA : DELTA));
     }
 
 //    public Ray(Point point, Vector dir, Vector normal) {
@@ -79,6 +103,60 @@ public class Ray {
         return direction;
     }
 
+    /**
+     * Returns the inverse of the x component of the direction.
+     *
+     * @return 1 / x of the direction, infinite if it is zero
+     */
+    public double getInverseX() {
+        return inverseX;
+    }
+
+    /**
+     * Returns the inverse of the y component of the direction.
+     *
+     * @return 1 / y of the direction, infinite if it is zero
+     */
+    public double getInverseY() {
+        return inverseY;
+    }
+
+    /**
+     * Returns the inverse of the z component of the direction.
+     *
+     * @return 1 / z of the direction, infinite if it is zero
+     */
+    public double getInverseZ() {
+        return inverseZ;
+    }
+
+    /**
+     * Checks whether the x component of the direction is negative (including -0).
+     *
+     * @return true if the ray goes towards the negative x
+     */
+    public boolean isNegativeX() {
+        return negativeX;
+    }
+
+    /**
+     * Checks whether the y component of the direction is negative (including -0).
+     *
+     * @return true if the ray goes towards the negative y
+     */
+    public boolean isNegativeY() {
+        return negativeY;
+    }
+
+    /**
+     * Checks whether the z component of the direction is negative (including -0).
+     *
+     * @return true if the ray goes towards the negative z
+     */
+    public boolean isNegativeZ() {
+        return negativeZ;
+    }
+
 
     /**
      * Calculates a point on the ray at a given distance from the ray's origin.
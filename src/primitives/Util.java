@@ -10,6 +10,11 @@ public final class Util {
      * It is binary, equivalent to ~1/1,000,000,000,000 in decimal (12 digits)
      */
     private static final int ACCURACY = -40;
+    /**
+     * The same accuracy for single precision numbers, ~1/1,000,000 in decimal -
+     * it leaves {@code float} the same 3 bits of the mantissa that {@code double} has above its 12 digits
+     */
+    private static final int FLOAT_ACCURACY = -20;
 
     /**
      * Don't let anyone instantiate this class.
@@ -45,6 +50,40 @@ public final class Util {
         return getExp(number) < ACCURACY;
     }
 
+    /**
+     * {@code float} data format in memory (bit level):<br>
+     * seee eeee e(1.)mmm mmmm mmmm mmmm mmmm mmmm<br>
+     * 1 bit sign, 8 bits exponent, 24 bits (23 stored) normalized mantissa<br>
+     * NB: exponent is stored "normalized" (i.e. always positive by adding 127)<br>
+     *
+     * @param num the original number
+     * @return the exponent value
+     */
+    private static int getExp(float num) {
+        return ((Float.floatToRawIntBits(num) >> 23) & 0xFF) - 127;
+    }
+
+    /**
+     * Checks whether the single precision number is [almost] zero
+     *
+     * @param number the number to check
+     * @return true if the number is zero or almost zero, false otherwise
+     */
+    public static boolean isZeroF(float number) {
+        return getExp(number) < FLOAT_ACCURACY;
+    }
+
+    /**
+     * Aligns the single precision number to zero if it is almost zero
+     *
+     * @param number the number to align
+     * @return 0 if the number is very close to zero, the number itself
+     * otherwise
+     */
+    public static float alignZeroF(float number) {
+        return isZeroF(number) ? 0f : number;
+    }
+
     /**
      * Aligns the number to zero if it is almost zero
      *
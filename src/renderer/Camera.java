@@ -2,6 +2,8 @@ package renderer;
 
 import primitives.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.MissingResourceException;
 import java.util.stream.IntStream;
@@ -36,6 +38,50 @@ public class Camera implements Cloneable {
     private int threadsCount = 0;
     private boolean isUseThreads = false;
     private boolean adaptiveSuperSamplingEnabled = false;
+    /**
+     * Size of the side of the rendered tiles, 0 for rendering pixel by pixel
+     */
+    private int tileSize = 0;
+    /**
+     * Receiver of the tiles as soon as they are rendered, null if there is none
+     */
+    private TileListener tileListener = null;
+    /**
+     * Whether the rendered pixels are kept in the image writer
+     */
+    private boolean keepImage = true;
+    /**
+     * Amount of rays per pixel (anti-aliasing), 1 for a single ray through the pixel center
+     */
+    private int antiAliasing = 1;
+    /**
+     * Generator of the sample points of the pixels for anti-aliasing
+     */
+    private Sampler sampler = Sampler.STRATIFIED;
+    /**
+     * File of the render checkpoint, null if there is no checkpoint
+     */
+    private Path checkpointPath = null;
+    /**
+     * Interval between the checkpoints in seconds
+     */
+    private double checkpointInterval = 0;
+    /**
+     * Whether the render is resumed from the checkpoint
+     */
+    private boolean resume = false;
+    /**
+     * Amount of progressive passes over the image, each of them adds a sample per pixel
+     */
+    private int passes = 1;
+    /**
+     * Whether the image is written after each progressive pass
+     */
+    private boolean previewPasses = false;
+    /**
+     * The current progressive pass
+     */
+    private int pass = 0;
 
     private Camera() {
     }
@@ -100,7 +146,7 @@ public class Camera implements Cloneable {
 //        return new Ray(location, vIJ);
 //    }
 
-    private Point findPixelLocation(int nX, int nY, int j, int i) {
+    private Point findPixelLocation(int nX, int nY, double j, double i) {
 
         double rY = height / nY;
         double rX = width / nX;
@@ -117,17 +163,50 @@ public class Camera implements Cloneable {
         return new Ray(location, findPixelLocation(nX, nY, j, i).subtract(location));
     }
 
+    /**
+     * Traces the color of a pixel - through its center, or with anti-aliasing as the average of
+     * the rays through the sample points of the pixel
+     *
+     * @param nX the number of pixels in the x direction
+     * @param nY the number of pixels in the y direction
+     * @param j  the x index (column) of the pixel
+     * @param i  the y index (row) of the pixel
+     * @return the color of the pixel
+     */
+    private Color tracePixel(int nX, int nY, int j, int i) {
+        long pixel = (long) i * nX + j;
+        // every progressive pass takes other samples of the pixel
+        int first = pass * (antiAliasing + 1);
+        SampleRandom.setPixel(pixel, first);
+        if (antiAliasing == 1)
+            return rayTracer.traceRay(constructRay(nX, nY, j, i));
+
+        double[] xs = new double[antiAliasing];
+        double[] ys = new double[antiAliasing];
+        sampler.generate(antiAliasing, xs, ys);
+        ColorAccumulator color = new ColorAccumulator();
+        for (int s = 0; s < antiAliasing; ++s) {
+            SampleRandom.setPixel(pixel, first + s + 1);
+            Point point = findPixelLocation(nX, nY, j + xs[s] - 0.5, i + ys[s] - 0.5);
+            color.add(rayTracer.traceRay(new Ray(location, point.subtract(location))));
+        }
+        return color.toColor().reduce(antiAliasing);
+    }
+
 
     /**
      * Casts a ray through the specified pixel.
      *
      * @param nX the number of pixels in the x direction
      * @param nY the number of pixels in the y direction
-     * @param i  the x index of the pixel
-     * @param j  the y index of the pixel
+     * @param i  the y index (row) of the pixel
+     * @param j  the x index (column) of the pixel
      */
     private void castRay(int nX, int nY, int i, int j) {
-        imageWriter.writePixel(j, i,rayTracer.traceRay(constructRay(nX, nY, j, i)));
+        if (pass == 0)
+            imageWriter.writePixel(j, i, tracePixel(nX, nY, j, i));
+        else // running average of the passes
+            imageWriter.getFramebuffer().blendPixel(j, i, tracePixel(nX, nY, j, i), 1d / (pass + 1));
 //            if (i == 0 && j % 10 == 0) {
 //                System.out.print("Traced: ");
 //                System.out.print((float) i / (float) camera.imageWriter.getNy() * 100);
@@ -149,22 +228,42 @@ public class Camera implements Cloneable {
         }
         final int nX = imageWriter.getNx();
         final int nY = imageWriter.getNy();
+        rayTracer.beginRender();
+
+        if (tileSize > 0) {
+            renderTiles(nX, nY);
+            return this;
+        }
 
+        for (pass = 0; pass < passes; ++pass) {
+            renderPass(nX, nY);
+            if (previewPasses && pass < passes - 1) imageWriter.writeToImage();
+        }
+        pass = 0;
+        return this;
+    }
+
+    /**
+     * Renders a pass over the pixels of the image
+     *
+     * @param nX the number of pixels in the x direction
+     * @param nY the number of pixels in the y direction
+     */
+    private void renderPass(int nX, int nY) {
         pixelManager = new PixelManager(nY, nX, printInterval);
 
         if (threadsCount == 0) {
             for (int i = 0; i < nY; ++i) {
                 for (int j = 0; j < nX; ++j) {
-                    castRay(nX, nY, j, i);
-                    // camera.imageWriter.writePixel(j, i, castRay(nX, nY, j, i));
+                    castRay(nX, nY, i, j);
                 }
             }
         } else {
             var threads = new LinkedList<Thread>();
-            while (threadsCount-- > 0) {
+            for (int t = 0; t < threadsCount; ++t) {
                 threads.add(new Thread(() -> {
                     PixelManager.Pixel pixel;
-                    while ((pixel = pixelManager.nextPixel()) != null) { //
+                    while ((pixel = pixelManager.nextPixel()) != null) {
                         castRay(nX, nY, pixel.col(), pixel.row());
                     }
                 }));
@@ -174,18 +273,103 @@ public class Camera implements Cloneable {
             try {
                 for (var thread : threads) thread.join();
             } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Renders the image tile by tile. Each finished tile is kept in the image writer
+     * (unless it is disabled) and is passed to the tile listener. With a checkpoint
+     * the finished tiles are saved in it, and the tiles completed by the resumed
+     * render are read from it instead of rendering.
+     *
+     * @param nX the number of pixels in the x direction
+     * @param nY the number of pixels in the y direction
+     */
+    private void renderTiles(int nX, int nY) {
+        if (checkpointPath == null) {
+            renderTiles(nX, nY, null);
+            return;
+        }
+        try (RenderCheckpoint checkpoint = new RenderCheckpoint(checkpointPath, nX, nY, tileSize,
+                checkpointInterval, resume)) {
+            renderTiles(nX, nY, checkpoint);
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error of the checkpoint " + checkpointPath, e);
+        }
+    }
 
+    /**
+     * Renders the image tile by tile
+     *
+     * @param nX         the number of pixels in the x direction
+     * @param nY         the number of pixels in the y direction
+     * @param checkpoint the checkpoint of the render, null if there is none
+     */
+    private void renderTiles(int nX, int nY, RenderCheckpoint checkpoint) {
+        pixelManager = new PixelManager(nY, nX, tileSize, printInterval);
+        if (keepImage) imageWriter.getFramebuffer();
+
+        Runnable worker = () -> {
+            float[] rgb = new float[tileSize * tileSize * 3];
+            Tile tile;
+            while ((tile = pixelManager.nextTile()) != null) {
+                if (checkpoint != null && checkpoint.isCompleted(tile)) {
+                    checkpoint.readTile(tile, rgb);
+                } else {
+                    renderTile(nX, nY, tile, rgb);
+                    if (checkpoint != null) checkpoint.tileRendered(tile, rgb);
+                }
+                if (keepImage) imageWriter.getFramebuffer().setTile(tile, rgb);
+                if (tileListener != null) tileListener.tileRendered(tile, rgb);
+                pixelManager.tileDone(tile);
+            }
+        };
 
+        if (threadsCount == 0) {
+            worker.run();
+        } else {
+            var threads = new LinkedList<Thread>();
+            for (int i = 0; i < threadsCount; ++i)
+                threads.add(new Thread(worker));
+            for (var thread : threads) thread.start();
+            try {
+                for (var thread : threads) thread.join();
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
             }
         }
+    }
 
-        return this;
+    /**
+     * Renders the pixels of a tile of the view plane without writing them
+     *
+     * @param nX   the number of pixels in the x direction
+     * @param nY   the number of pixels in the y direction
+     * @param tile the tile
+     * @param rgb  buffer for the colors of the tile pixels, row by row from the top, red, green and blue per pixel
+     */
+    public void renderTile(int nX, int nY, Tile tile, float[] rgb) {
+        int k = 0;
+        for (int i = tile.y(); i < tile.y() + tile.height(); ++i) {
+            for (int j = tile.x(); j < tile.x() + tile.width(); ++j) {
+                Color color = tracePixel(nX, nY, j, i);
+                rgb[k++] = (float) color.getRed();
+                rgb[k++] = (float) color.getGreen();
+                rgb[k++] = (float) color.getBlue();
+            }
+        }
     }
 
     /**
      * Writes the image to a file.
+     *
+     * @throws UnsupportedOperationException if the rendered image is not kept (tiles are only streamed)
      */
     public Camera writeToImage() {
+        if (!keepImage)
+            throw new UnsupportedOperationException("The image is not kept - the tiles are only streamed");
         imageWriter.writeToImage();
         return this;
     }
@@ -220,6 +404,11 @@ public class Camera implements Cloneable {
     //======================================= Builder =============================================
 
     public static class Builder {
+        /**
+         * Size of the side of the tiles when tiles are streamed without a set size
+         */
+        public static final int DEFAULT_TILE_SIZE = 32;
+
         private final Camera camera = new Camera();
 
         /**
@@ -255,6 +444,18 @@ public class Camera implements Cloneable {
             if (camera.rayTracer == null) {
                 throw new MissingResourceException(missing, cameraStr, "rayTracer");
             }
+            if (!camera.keepImage && camera.tileListener == null && camera.checkpointPath == null) {
+                throw new MissingResourceException(missing, cameraStr, "tileListener");
+            }
+            if ((camera.tileListener != null || camera.checkpointPath != null) && camera.tileSize == 0) {
+                camera.tileSize = DEFAULT_TILE_SIZE;
+            }
+            if (camera.passes > 1 && camera.tileSize > 0) {
+                throw new IllegalArgumentException("Progressive passes are not supported with rendering by tiles");
+            }
+            if (camera.passes > 1 && !camera.rayTracer.isProgressiveSupported()) {
+                throw new IllegalArgumentException("Progressive passes are not supported by the ray tracer");
+            }
             camera.vRight = (camera.vTo.crossProduct(camera.vUp)).normalize();
             return (Camera) camera.clone();
         }
@@ -281,6 +482,120 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Sets rendering by square tiles instead of pixel by pixel.
+         *
+         * @param tileSize the size of the side of the tiles in pixels
+         * @return the current Builder instance
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize <= 0) {
+                throw new IllegalArgumentException("Tile size must be positive");
+            }
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Sets a receiver of the tiles as soon as they are rendered (e.g. {@link TileFileWriter} for a
+         * progressive preview). It turns on rendering by tiles (of {@link #DEFAULT_TILE_SIZE} pixels if
+         * the size is not set).
+         *
+         * @param tileListener the receiver of the tiles
+         * @return the current Builder instance
+         */
+        public Builder setTileListener(TileListener tileListener) {
+            if (tileListener == null) {
+                throw new IllegalArgumentException("tileListener cannot be null");
+            }
+            camera.tileListener = tileListener;
+            return this;
+        }
+
+        /**
+         * Sets checkpointing of the render into a memory-mapped file, so an interrupted render can be
+         * resumed. It turns on rendering by tiles (of {@link #DEFAULT_TILE_SIZE} pixels if the size is
+         * not set).
+         *
+         * @param path     the checkpoint file
+         * @param interval interval between the checkpoints in seconds
+         * @param resume   true for skipping the tiles completed in an existing checkpoint of the same
+         *                 image, false for starting a new checkpoint
+         * @return the current Builder instance
+         */
+        public Builder setCheckpoint(Path path, double interval, boolean resume) {
+            if (path == null) {
+                throw new IllegalArgumentException("checkpoint path cannot be null");
+            }
+            if (interval < 0) {
+                throw new IllegalArgumentException("Checkpoint interval cannot be negative");
+            }
+            camera.checkpointPath = path;
+            camera.checkpointInterval = interval;
+            camera.resume = resume;
+            return this;
+        }
+
+        /**
+         * Sets whether the rendered pixels are kept in the image writer. When the tiles are streamed to
+         * a listener, turning it off bounds the memory of huge images - the image writer buffer is never
+         * allocated, and the image can not be written by {@link Camera#writeToImage()}.
+         *
+         * @param keepImage false to keep only the streamed tiles
+         * @return the current Builder instance
+         */
+        public Builder setKeepImage(boolean keepImage) {
+            camera.keepImage = keepImage;
+            return this;
+        }
+
+        /**
+         * Sets anti-aliasing - the amount of rays per pixel, whose colors are averaged.
+         *
+         * @param samples the amount of rays per pixel, 1 for a single ray through the pixel center
+         * @return the current Builder instance
+         */
+        public Builder setAntiAliasing(int samples) {
+            if (samples <= 0) {
+                throw new IllegalArgumentException("Amount of samples must be positive");
+            }
+            camera.antiAliasing = samples;
+            return this;
+        }
+
+        /**
+         * Sets the generator of the sample points of the pixels for anti-aliasing.
+         *
+         * @param sampler the generator
+         * @return the current Builder instance
+         */
+        public Builder setSampler(Sampler sampler) {
+            if (sampler == null) {
+                throw new IllegalArgumentException("sampler cannot be null");
+            }
+            camera.sampler = sampler;
+            return this;
+        }
+
+        /**
+         * Sets progressive rendering - the image is rendered in several passes, each of them traces
+         * other samples of every pixel and adds them to the running average of the pixel (useful with a
+         * stochastic ray tracer such as {@link PathTracer}). Not supported with rendering by tiles, nor
+         * with a ray tracer keeping a state during the render (an irradiance cache).
+         *
+         * @param passes  the amount of passes
+         * @param preview true for writing the image after each pass, so it is refined while rendering
+         * @return the current Builder instance
+         */
+        public Builder setProgressive(int passes, boolean preview) {
+            if (passes <= 0) {
+                throw new IllegalArgumentException("Amount of passes must be positive");
+            }
+            camera.passes = passes;
+            camera.previewPasses = preview;
+            return this;
+        }
+
         /**
          * Sets interval size for progress printing in builder pattern.
          *
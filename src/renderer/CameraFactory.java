@@ -0,0 +1,18 @@
+package renderer;
+
+/**
+ * Factory of a camera with its scene, for rendering the same image in several
+ * processes (see {@link RenderCoordinator} and {@link RenderWorker}). Each worker
+ * process creates the camera once by the name of the factory class, so an
+ * implementation must be a public class with a public constructor without
+ * parameters, and it must build the same scene and camera in every process.
+ */
+@FunctionalInterface
+public interface CameraFactory {
+    /**
+     * Builds the camera (with its image writer and ray tracer)
+     *
+     * @return the camera
+     */
+    Camera createCamera();
+}
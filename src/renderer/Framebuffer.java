@@ -0,0 +1,154 @@
+package renderer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import primitives.Color;
+
+/**
+ * Framebuffer class keeps the rendered pixel colors in a flat float RGB array.<br>
+ * The colors are kept unclamped (high dynamic range) in the scale of
+ * {@link Color} - 0..255 for printed colors, or more. Each render thread writes
+ * its own pixels into the array without any synchronization, and the conversion
+ * into an 8-bit image is done once, when the image is written.
+ */
+public class Framebuffer {
+    /**
+     * Amount of floats per pixel
+     */
+    private static final int CHANNELS = 3;
+
+    /**
+     * Horizontal resolution - number of pixels in row
+     */
+    private final int width;
+    /**
+     * Vertical resolution - number of pixels in column
+     */
+    private final int height;
+    /**
+     * The pixels, row by row from the top, red, green and blue per pixel
+     */
+    private final float[] rgb;
+
+    /**
+     * Constructs a black framebuffer
+     *
+     * @param width  amount of pixels by width
+     * @param height amount of pixels by height
+     */
+    public Framebuffer(int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Framebuffer dimensions must be positive");
+        if ((long) width * height * CHANNELS > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Framebuffer is too big for a single array");
+        this.width = width;
+        this.height = height;
+        rgb = new float[width * height * CHANNELS];
+    }
+
+    /**
+     * Horizontal resolution getter
+     *
+     * @return the amount of horizontal pixels
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Vertical resolution getter
+     *
+     * @return the amount of vertical pixels
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The backing array of the framebuffer (for bulk passes over the pixels) -
+     * the pixels row by row from the top, red, green and blue per pixel
+     *
+     * @return the array
+     */
+    public float[] getData() {
+        return rgb;
+    }
+
+    /**
+     * Writes a pixel color
+     *
+     * @param x     X axis index of the pixel
+     * @param y     Y axis index of the pixel
+     * @param color the color of the pixel
+     */
+    public void setPixel(int x, int y, Color color) {
+        int i = (y * width + x) * CHANNELS;
+        rgb[i] = (float) color.getRed();
+        rgb[i + 1] = (float) color.getGreen();
+        rgb[i + 2] = (float) color.getBlue();
+    }
+
+    /**
+     * Reads a pixel color
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @return the color of the pixel
+     */
+    public Color getPixel(int x, int y) {
+        int i = (y * width + x) * CHANNELS;
+        return new Color(rgb[i], rgb[i + 1], rgb[i + 2]);
+    }
+
+    /**
+     * Blends a color into a pixel - moves the pixel color towards the color by a weight, e.g.
+     * 1 / (n + 1) for adding the n + 1'th sample to the running average of n samples
+     *
+     * @param x      X axis index of the pixel
+     * @param y      Y axis index of the pixel
+     * @param color  the color to blend
+     * @param weight the weight of the color in range [0, 1]
+     */
+    public void blendPixel(int x, int y, Color color, double weight) {
+        int i = (y * width + x) * CHANNELS;
+        rgb[i] += (float) ((color.getRed() - rgb[i]) * weight);
+        rgb[i + 1] += (float) ((color.getGreen() - rgb[i + 1]) * weight);
+        rgb[i + 2] += (float) ((color.getBlue() - rgb[i + 2]) * weight);
+    }
+
+    /**
+     * Writes the colors of a tile of pixels
+     *
+     * @param tile the tile
+     * @param rgb  the colors of the tile pixels, row by row from the top, red, green and blue per pixel
+     */
+    public void setTile(Tile tile, float[] rgb) {
+        int rowLength = tile.width() * CHANNELS;
+        for (int r = 0; r < tile.height(); ++r)
+            System.arraycopy(rgb, r * rowLength, this.rgb, ((tile.y() + r) * width + tile.x()) * CHANNELS, rowLength);
+    }
+
+    /**
+     * Converts the framebuffer into an 8-bit RGB image, every component bigger than 255 is set to 255
+     *
+     * @return the image
+     */
+    public BufferedImage toImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int p = 0, i = 0; p < pixels.length; ++p, i += CHANNELS)
+            pixels[p] = toByte(rgb[i]) << 16 | toByte(rgb[i + 1]) << 8 | toByte(rgb[i + 2]);
+        return image;
+    }
+
+    /**
+     * Converts a color component into the range [0, 255] the same way as {@link Color#getColor()}
+     *
+     * @param value the component
+     * @return the 8-bit component
+     */
+    static int toByte(float value) {
+        return Math.max(0, Math.min(255, (int) value));
+    }
+}
@@ -0,0 +1,220 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reading and writing of high dynamic range image files of a {@link Framebuffer}.<br>
+ * The files keep the 32-bit float colors without clamping, divided by 255 (so the
+ * printed white of {@link primitives.Color} is 1 in the file), and the reading
+ * restores the framebuffer scale. Supported formats are PFM (read and write) and
+ * uncompressed scanline OpenEXR (write).
+ */
+public final class HdrImageIO {
+    /**
+     * Scale of the colors in the framebuffer relatively to the files
+     */
+    private static final float SCALE = 255f;
+    /**
+     * OpenEXR magic number
+     */
+    private static final int EXR_MAGIC = 20000630;
+    /**
+     * OpenEXR pixel type of 32-bit float
+     */
+    private static final int EXR_FLOAT = 2;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private HdrImageIO() {
+    }
+
+    /**
+     * Writes the framebuffer into a PFM file (little endian RGB)
+     *
+     * @param framebuffer the image
+     * @param path        the file
+     * @throws IOException in case of a failure in writing the file
+     */
+    public static void writePfm(Framebuffer framebuffer, Path path) throws IOException {
+        int width = framebuffer.getWidth();
+        int height = framebuffer.getHeight();
+        float[] rgb = framebuffer.getData();
+        try (FileChannel channel = open(path)) {
+            // negative scale means little endian
+            writeFully(channel, ByteBuffer.wrap(("PF\n" + width + " " + height + "\n-1.0\n")
+                    .getBytes(StandardCharsets.US_ASCII)));
+            ByteBuffer row = ByteBuffer.allocate(width * 12).order(ByteOrder.LITTLE_ENDIAN);
+            // the rows are stored from the bottom
+            for (int y = height - 1; y >= 0; --y) {
+                row.clear();
+                for (int i = y * width * 3, end = i + width * 3; i < end; ++i)
+                    row.putFloat(rgb[i] / SCALE);
+                writeFully(channel, row.flip());
+            }
+        }
+    }
+
+    /**
+     * Reads a PFM file (RGB, of any byte order) into a new framebuffer
+     *
+     * @param path the file
+     * @return the framebuffer
+     * @throws IOException in case of a failure in reading the file or if it is not an RGB PFM
+     */
+    public static Framebuffer readPfm(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!"PF".equals(nextToken(data)))
+                throw new IOException("Not an RGB PFM file: " + path);
+            int width;
+            int height;
+            float scale;
+            try {
+                width = Integer.parseInt(nextToken(data));
+                height = Integer.parseInt(nextToken(data));
+                scale = Float.parseFloat(nextToken(data));
+            } catch (NumberFormatException e) {
+                throw new IOException("Wrong PFM header: " + path, e);
+            }
+            // a single whitespace character ends the header
+            data.get();
+            data.order(scale < 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            if (data.remaining() < (long) width * height * 12)
+                throw new IOException("Truncated PFM file: " + path);
+
+            Framebuffer framebuffer = new Framebuffer(width, height);
+            float[] rgb = framebuffer.getData();
+            for (int y = height - 1; y >= 0; --y)
+                for (int i = y * width * 3, end = i + width * 3; i < end; ++i)
+                    rgb[i] = data.getFloat() * SCALE;
+            return framebuffer;
+        }
+    }
+
+    /**
+     * Writes the framebuffer into an uncompressed scanline OpenEXR file with 32-bit float R, G, B channels
+     *
+     * @param framebuffer the image
+     * @param path        the file
+     * @throws IOException in case of a failure in writing the file
+     */
+    public static void writeExr(Framebuffer framebuffer, Path path) throws IOException {
+        int width = framebuffer.getWidth();
+        int height = framebuffer.getHeight();
+        float[] rgb = framebuffer.getData();
+
+        ByteBuffer header = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(EXR_MAGIC).putInt(2); // version 2, single part scanline image
+        // the channels are listed (and stored in the lines) in alphabetical order
+        attribute(header, "channels", "chlist", 3 * 18 + 1);
+        for (String channel : new String[] { "B", "G", "R" }) {
+            string(header, channel);
+            header.putInt(EXR_FLOAT).putInt(0).putInt(1).putInt(1); // type, linear & reserved, sampling
+        }
+        header.put((byte) 0);
+        attribute(header, "compression", "compression", 1).put((byte) 0);
+        attribute(header, "dataWindow", "box2i", 16).putInt(0).putInt(0).putInt(width - 1).putInt(height - 1);
+        attribute(header, "displayWindow", "box2i", 16).putInt(0).putInt(0).putInt(width - 1).putInt(height - 1);
+        attribute(header, "lineOrder", "lineOrder", 1).put((byte) 0); // increasing Y
+        attribute(header, "pixelAspectRatio", "float", 4).putFloat(1);
+        attribute(header, "screenWindowCenter", "v2f", 8).putFloat(0).putFloat(0);
+        attribute(header, "screenWindowWidth", "float", 4).putFloat(1);
+        header.put((byte) 0);
+
+        int lineData = width * 3 * 4;
+        long firstLine = header.position() + 8L * height;
+        ByteBuffer offsets = ByteBuffer.allocate(8 * height).order(ByteOrder.LITTLE_ENDIAN);
+        for (int y = 0; y < height; ++y)
+            offsets.putLong(firstLine + (long) y * (8 + lineData));
+
+        try (FileChannel channel = open(path)) {
+            writeFully(channel, header.flip());
+            writeFully(channel, offsets.flip());
+            ByteBuffer line = ByteBuffer.allocate(8 + lineData).order(ByteOrder.LITTLE_ENDIAN);
+            for (int y = 0; y < height; ++y) {
+                line.clear();
+                line.putInt(y).putInt(lineData);
+                for (int c = 2; c >= 0; --c)
+                    for (int i = y * width * 3 + c, end = (y + 1) * width * 3; i < end; i += 3)
+                        line.putFloat(rgb[i] / SCALE);
+                writeFully(channel, line.flip());
+            }
+        }
+    }
+
+    /**
+     * Puts the name, the type and the size of an OpenEXR header attribute
+     *
+     * @param header the header
+     * @param name   the attribute name
+     * @param type   the attribute type
+     * @param size   the size of the attribute value
+     * @return the header for putting the value
+     */
+    private static ByteBuffer attribute(ByteBuffer header, String name, String type, int size) {
+        string(header, name);
+        string(header, type);
+        return header.putInt(size);
+    }
+
+    /**
+     * Puts a null terminated string
+     *
+     * @param buffer the buffer
+     * @param value  the string
+     */
+    private static void string(ByteBuffer buffer, String value) {
+        buffer.put(value.getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+    }
+
+    /**
+     * Reads a whitespace separated token of a header
+     *
+     * @param data the file data
+     * @return the token
+     * @throws IOException if the file ends
+     */
+    private static String nextToken(ByteBuffer data) throws IOException {
+        StringBuilder token = new StringBuilder();
+        while (data.hasRemaining()) {
+            char c = (char) data.get(data.position());
+            if (!Character.isWhitespace(c))
+                token.append(c);
+            else if (!token.isEmpty())
+                return token.toString();
+            data.get();
+        }
+        throw new IOException("Unexpected end of file header");
+    }
+
+    /**
+     * Opens a file for writing from the beginning
+     *
+     * @param path the file
+     * @return the file channel
+     * @throws IOException in case of a failure in opening the file
+     */
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer
+     *
+     * @param channel the file
+     * @param buffer  the bytes
+     * @throws IOException in case of a failure in writing the file
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+}
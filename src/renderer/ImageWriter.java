@@ -1,13 +1,10 @@
 package renderer;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.imageio.ImageIO;
-
 import primitives.Color;
 
 /**
@@ -35,13 +32,20 @@ public class ImageWriter {
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
     /**
-     * Image generation buffer (the matrix of the pixels)
+     * Image generation buffer (the matrix of the pixels) in high dynamic range,
+     * converted into the 8-bit image only when the image is written. It is
+     * allocated on the first use, so an image which is only streamed by tiles
+     * does not occupy memory
      */
-    private BufferedImage image;
+    private volatile Framebuffer framebuffer;
     /**
      * image file name, not including the file extension '.png'
      */
     private String imageName;
+    /**
+     * Tone mapper for the png image, null for clamping the colors to the printed range
+     */
+    private ToneMapper toneMapper = null;
     /**
      * logger for reporting I/O failures
      */
@@ -61,7 +65,34 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Image Writer constructor of an existing image (for re-grading of a high dynamic range image
+     * without re-rendering)
+     *
+     * @param imageName   the name of png file
+     * @param framebuffer the pixels of the image
+     */
+    private ImageWriter(String imageName, Framebuffer framebuffer) {
+        this(imageName, framebuffer.getWidth(), framebuffer.getHeight());
+        this.framebuffer = framebuffer;
+    }
+
+    /**
+     * Creates an image writer of a high dynamic range image saved by {@link #writeToPfm()}
+     *
+     * @param hdrName   the name of the pfm file (in the directory of the project), not including the extension
+     * @param imageName the name of png file of the new image writer
+     * @return the image writer with the pixels of the file
+     */
+    public static ImageWriter readPfm(String hdrName, String imageName) {
+        try {
+            return new ImageWriter(imageName, HdrImageIO.readPfm(Path.of(FOLDER_PATH, hdrName + ".pfm")));
+        } catch (IOException e) {
+            Logger.getLogger("ImageWriter").log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing file " + hdrName + ".pfm", e);
+        }
     }
 
     // ***************** Getters/Setters ********************** //
@@ -84,17 +115,71 @@ public class ImageWriter {
         return nX;
     }
 
+    /**
+     * The framebuffer with the (unclamped) colors of the pixels, it is allocated on the first call
+     *
+     * @return the framebuffer
+     */
+    public Framebuffer getFramebuffer() {
+        Framebuffer result = framebuffer;
+        if (result == null) {
+            synchronized (this) {
+                if ((result = framebuffer) == null)
+                    framebuffer = result = new Framebuffer(nX, nY);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets tone mapping of the png image - instead of clamping the colors bigger than the printed white
+     *
+     * @param toneMapper the tone mapper, null for clamping
+     * @return the image writer itself
+     */
+    public ImageWriter setToneMapper(ToneMapper toneMapper) {
+        this.toneMapper = toneMapper;
+        return this;
+    }
+
     // ***************** Operations ******************** //
 
     /**
-     * Function writeToImage produces unoptimized png file of the image according
-     * to
-     * pixel color matrix in the directory of the project
+     * Function writeToImage produces png file of the image according to pixel
+     * color matrix in the directory of the project. The image is compressed in
+     * parallel by all the processors
      */
     public void writeToImage() {
+        Framebuffer image = toneMapper == null ? getFramebuffer() : toneMapper.apply(getFramebuffer());
+        try {
+            new PngEncoder().write(image, Path.of(FOLDER_PATH, imageName + ".png"));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+    }
+
+    /**
+     * Function writeToPfm produces a high dynamic range pfm file of the pixel color
+     * matrix (without clamping and tone mapping) in the directory of the project
+     */
+    public void writeToPfm() {
+        try {
+            HdrImageIO.writePfm(getFramebuffer(), Path.of(FOLDER_PATH, imageName + ".pfm"));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
+        }
+    }
+
+    /**
+     * Function writeToExr produces a high dynamic range uncompressed OpenEXR file of
+     * the pixel color matrix (without clamping and tone mapping) in the directory of
+     * the project
+     */
+    public void writeToExr() {
         try {
-            File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-            ImageIO.write(image, "png", file);
+            HdrImageIO.writeExr(getFramebuffer(), Path.of(FOLDER_PATH, imageName + ".exr"));
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH, e);
@@ -110,7 +195,7 @@ public class ImageWriter {
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        getFramebuffer().setPixel(xIndex, yIndex, color);
     }
 
 }
@@ -0,0 +1,240 @@
+package renderer;
+
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cache of the colors of blurry beams (in the manner of Ward's irradiance cache).<br>
+ * A beam color computed at a hit is stored as a record in an octree by the position,
+ * the normal and the view direction of the hit. A later hit of the same material
+ * interpolates the records near it - closer than the cache radius, with a similar
+ * normal and a similar view direction - weighted by their error estimate, and the beam
+ * is traced only when there is no such record. So a smooth surface traces the beams at
+ * a sparse set of points instead of at every pixel.<br>
+ * The cache is shared by the rendering threads; its content depends on the order of
+ * the pixels, so the colors of a multithreaded render may slightly differ between runs.
+ */
+class IrradianceCache {
+    /**
+     * Maximal amount of records in a leaf of the octree
+     */
+    private static final int LEAF_SIZE = 8;
+    /**
+     * Minimal cosine between the normals (and between the view directions) of a record and a hit
+     */
+    private static final double MIN_COSINE = 0.95;
+
+    /**
+     * A cached beam color
+     *
+     * @param material  the material of the hit
+     * @param point     the point of the hit
+     * @param normal    the normal at the hit
+     * @param direction the view direction at the hit
+     * @param color     the color of the beam
+     */
+    private record Record(Material material, Point point, Vector normal, Vector direction, Color color) {
+    }
+
+    /**
+     * A node of the octree - a cube
+     */
+    private static class Node {
+        /** The center of the cube */
+        final double x, y, z;
+        /** Half of the side of the cube */
+        final double half;
+        /** The children (by the x, y and z bits), null for a leaf */
+        Node[] children = null;
+        /** The records of a leaf */
+        List<Record> records = new ArrayList<>();
+
+        /**
+         * Constructs a leaf node
+         *
+         * @param x    the x of the center
+         * @param y    the y of the center
+         * @param z    the z of the center
+         * @param half half of the side
+         */
+        Node(double x, double y, double z, double half) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.half = half;
+        }
+
+        /**
+         * The index of the child containing a point
+         *
+         * @param p the point
+         * @return the index of the child
+         */
+        int child(Point p) {
+            return (p.getX() >= x ? 1 : 0) | (p.getY() >= y ? 2 : 0) | (p.getZ() >= z ? 4 : 0);
+        }
+
+        /**
+         * Checks whether a point is in the cube
+         *
+         * @param p the point
+         * @return true if the point is in the cube
+         */
+        boolean contains(Point p) {
+            return Math.abs(p.getX() - x) <= half && Math.abs(p.getY() - y) <= half && Math.abs(p.getZ() - z) <= half;
+        }
+    }
+
+    /**
+     * The maximal distance between a record and a hit using it
+     */
+    private final double radius;
+    /**
+     * The root of the octree, null while the cache is empty
+     */
+    private Node root = null;
+    /**
+     * Lock of the octree - the lookups are concurrent
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs an empty cache
+     *
+     * @param radius the maximal distance between a record and a hit using it
+     */
+    IrradianceCache(double radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Cache radius must be positive");
+        }
+        this.radius = radius;
+    }
+
+    /**
+     * Interpolates the records near a hit
+     *
+     * @param context the shading values of the hit
+     * @return the interpolated color, null if there are no records near the hit
+     */
+    Color lookup(ShadingContext context) {
+        double[] sum = new double[4];
+        lock.readLock().lock();
+        try {
+            if (root != null) lookup(root, context, sum);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return sum[3] == 0 ? null : new Color(sum[0] / sum[3], sum[1] / sum[3], sum[2] / sum[3]);
+    }
+
+    /**
+     * Adds the weighted records of a subtree near a hit
+     *
+     * @param node    the root of the subtree
+     * @param context the shading values of the hit
+     * @param sum     the weighted sums of the red, green and blue, and the sum of the weights
+     */
+    private void lookup(Node node, ShadingContext context, double[] sum) {
+        Point p = context.point;
+        double reach = node.half + radius;
+        if (Math.abs(p.getX() - node.x) > reach || Math.abs(p.getY() - node.y) > reach
+                || Math.abs(p.getZ() - node.z) > reach) return;
+        if (node.children != null) {
+            for (Node child : node.children) lookup(child, context, sum);
+            return;
+        }
+        for (Record record : node.records) {
+            if (record.material != context.material) continue;
+            double normalCosine = record.normal.dotProduct(context.n);
+            double directionCosine = record.direction.dotProduct(context.v);
+            if (normalCosine < MIN_COSINE || directionCosine < MIN_COSINE) continue;
+            // the error estimate of using the record, below 1 for the usable records
+            double error = record.point.distance(p) / radius
+                    + Math.sqrt(1 - normalCosine) / Math.sqrt(1 - MIN_COSINE) / 2
+                    + Math.sqrt(1 - directionCosine) / Math.sqrt(1 - MIN_COSINE) / 2;
+            if (error >= 1) continue;
+            double weight = 1 / (error + 1e-3);
+            sum[0] += record.color.getRed() * weight;
+            sum[1] += record.color.getGreen() * weight;
+            sum[2] += record.color.getBlue() * weight;
+            sum[3] += weight;
+        }
+    }
+
+    /**
+     * Removes all the records
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the beam color of a hit
+     *
+     * @param context the shading values of the hit
+     * @param color   the color of the beam
+     */
+    void insert(ShadingContext context, Color color) {
+        Point p = context.point;
+        Record record = new Record(context.material, p, context.n, context.v, color);
+        lock.writeLock().lock();
+        try {
+            if (root == null) root = new Node(p.getX(), p.getY(), p.getZ(), radius * 64);
+            // the root grows towards the points out of it
+            while (!root.contains(p)) {
+                Node old = root;
+                double sx = p.getX() >= old.x ? 1 : -1;
+                double sy = p.getY() >= old.y ? 1 : -1;
+                double sz = p.getZ() >= old.z ? 1 : -1;
+                root = new Node(old.x + sx * old.half, old.y + sy * old.half, old.z + sz * old.half, old.half * 2);
+                root.children = new Node[8];
+                root.records = null;
+                for (int i = 0; i < 8; ++i)
+                    root.children[i] = i == root.child(new Point(old.x, old.y, old.z)) ? old
+                            : childNode(root, i);
+            }
+            Node node = root;
+            while (node.children != null) node = node.children[node.child(p)];
+            node.records.add(record);
+            if (node.records.size() > LEAF_SIZE && node.half > radius) split(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a leaf into 8 children
+     *
+     * @param node the leaf
+     */
+    private void split(Node node) {
+        node.children = new Node[8];
+        for (int i = 0; i < 8; ++i) node.children[i] = childNode(node, i);
+        for (Record record : node.records)
+            node.children[node.child(record.point)].records.add(record);
+        node.records = null;
+    }
+
+    /**
+     * Creates an empty child of a node
+     *
+     * @param node  the node
+     * @param index the index of the child (by the x, y and z bits)
+     * @return the child
+     */
+    private static Node childNode(Node node, int index) {
+        double quarter = node.half / 2;
+        return new Node(node.x + ((index & 1) != 0 ? quarter : -quarter),
+                node.y + ((index & 2) != 0 ? quarter : -quarter),
+                node.z + ((index & 4) != 0 ? quarter : -quarter), quarter);
+    }
+}
@@ -0,0 +1,135 @@
+package renderer;
+
+import primitives.*;
+import scene.Scene;
+
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * PathTracer class traces a single path per sample instead of the branching recursion of
+ * {@link SimpleRayTracer}.<br>
+ * At every hit the lights are sampled directly (next-event estimation - the same local
+ * shading and shadow rays as the simple ray tracer), and the path continues by one ray
+ * only: either the reflected or the refracted one, chosen randomly in proportion to
+ * their coefficients, and for glossy and blurry surfaces a single random ray of the
+ * beam. The chosen ray is reweighted by its probability, so the average of the paths
+ * converges to the color of the simple ray tracer while the cost of a path is linear in
+ * its depth. The color of a ray is the average of several paths; more samples are
+ * usually taken by the camera's anti-aliasing or progressive passes.
+ */
+public class PathTracer extends SimpleRayTracer {
+    /**
+     * Maximal amount of attempts to sample a glossy or blurry ray which stays on its side of the surface
+     */
+    private static final int MAX_ATTEMPTS = 8;
+
+    /**
+     * Amount of paths per traced ray
+     */
+    private int samples = 1;
+
+    /**
+     * Constructs a PathTracer with the specified scene.
+     *
+     * @param scene the scene to trace rays in
+     */
+    public PathTracer(Scene scene) {
+        super(scene);
+    }
+
+    /**
+     * Sets the amount of paths traced per ray, whose colors are averaged
+     *
+     * @param samples the amount of paths
+     * @return the ray tracer itself
+     */
+    public PathTracer setSamples(int samples) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Amount of samples must be positive");
+        }
+        this.samples = samples;
+        return this;
+    }
+
+    @Override
+    public Color traceRay(Ray ray) {
+        GeoPoint closestPoint = scene.geometries.findClosestIntersection(ray);
+        if (closestPoint == null) {
+            return scene.background;
+        }
+        ColorAccumulator color = new ColorAccumulator();
+        for (int s = 0; s < samples; ++s) {
+            tracePath(closestPoint, ray, color);
+        }
+        return color.toColor().reduce(samples).add(scene.ambientLight.getIntensity());
+    }
+
+    /**
+     * Traces a single path from its first hit
+     *
+     * @param gp    the first intersection point of the path
+     * @param ray   the ray of the camera
+     * @param color the accumulated color of the paths
+     */
+    private void tracePath(GeoPoint gp, Ray ray, ColorAccumulator color) {
+        Double3 k = Double3.ONE;
+        for (int level = MAX_CALC_COLOR_LEVEL; ; --level) {
+            ShadingContext context = new ShadingContext(gp, ray);
+            if (Util.isZero(context.nv)) {
+                // a grazing camera ray sees the emission only, a grazing bounce sees nothing
+                if (level == MAX_CALC_COLOR_LEVEL) color.add(context.emission);
+                return;
+            }
+            color.add(context.emission.add(calcLocalEffects(context, k)), k, Double3.ONE, 1);
+
+            // a single continuation - reflection or refraction by their coefficients
+            Material material = context.material;
+            double reflection = material.kr.max();
+            double refraction = material.kt.max();
+            if (reflection + refraction == 0) return;
+            boolean reflected = SampleRandom.nextDouble() * (reflection + refraction) < reflection;
+            Double3 kx = reflected ? material.kr : material.kt;
+            double probability = (reflected ? reflection : refraction) / (reflection + refraction);
+
+            Double3 kkx = k.product(kx);
+            if (kkx.lowerThan(MIN_CALC_COLOR_K)) return;
+            k = kkx.reduce(probability);
+            double survival = survival(k);
+            if (survival == 0) return;
+            if (survival < 1) k = k.reduce(survival);
+
+            ray = reflected ? sampleRay(context, context.reflected(), material.glossiness)
+                    : sampleRay(context, context.v, material.diffuseness);
+            if (ray == null) return;
+            gp = scene.geometries.findClosestIntersection(ray);
+            if (gp == null) {
+                color.add(scene.background, k, Double3.ONE, 1);
+                return;
+            }
+            // the simple ray tracer stops shading at its last level
+            if (level == 2) return;
+        }
+    }
+
+    /**
+     * Samples the continuation ray of a path - the ray itself, or a random ray of its
+     * glossy or blurry beam which stays on the same side of the surface
+     *
+     * @param context   the shading values of the intersection point
+     * @param direction the direction of the reflected or refracted ray
+     * @param size      the size of the beam target, 0 for a single ray
+     * @return the ray, or null if no ray of the beam stays on its side of the surface
+     */
+    private Ray sampleRay(ShadingContext context, Vector direction, double size) {
+        Vector n = context.n;
+        Ray ray = new Ray(context.point, direction, n);
+        if (size == 0) return ray;
+        double side = ray.getDirection().dotProduct(n);
+        TargetView target = new TargetView(ray, size);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; ++attempt) {
+            Ray sample = target.constructRayBeam(sampler, 1).getFirst();
+            if (sample.getDirection().dotProduct(n) * side > 0) return sample;
+        }
+        return null;
+    }
+}
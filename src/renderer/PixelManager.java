@@ -57,6 +57,26 @@ class PixelManager {
      */
     private boolean print = false;
 
+    /**
+     * Size of the side of the tiles, 0 when the pixels are allocated one by one
+     */
+    private int tileSize = 0;
+
+    /**
+     * Amount of tiles in a row of tiles
+     */
+    private int tilesInRow = 0;
+
+    /**
+     * Total amount of tiles in the image
+     */
+    private int totalTiles = 0;
+
+    /**
+     * Index of the next tile to be allocated
+     */
+    private int nextTile = 0;
+
     /**
      * Progress percentage printing interval
      */
@@ -95,6 +115,40 @@ class PixelManager {
             System.out.printf(PRINT_FORMAT, 0d);
     }
 
+    /**
+     * Initialize pixel manager data for multi-threading by tiles
+     *
+     * @param maxRows  the amount of pixel rows
+     * @param maxCols  the amount of pixel columns
+     * @param tileSize the size of the side of the tiles
+     * @param interval print time interval in seconds, 0 if printing is not
+     *                 required
+     */
+    PixelManager(int maxRows, int maxCols, int tileSize, double interval) {
+        this(maxRows, maxCols, interval);
+        this.tileSize = tileSize;
+        tilesInRow = (maxCols + tileSize - 1) / tileSize;
+        totalTiles = tilesInRow * ((maxRows + tileSize - 1) / tileSize);
+    }
+
+    /**
+     * Function for thread-safe allocation of the tiles, row of tiles by row of
+     * tiles from the top. The tiles of the right column and of the bottom row are
+     * clipped by the image borders.
+     *
+     * @return the next tile, or null if there are no more tiles
+     */
+    Tile nextTile() {
+        int index;
+        synchronized (mutexNext) {
+            if (nextTile == totalTiles) return null;
+            index = nextTile++;
+        }
+        int x = index % tilesInRow * tileSize;
+        int y = index / tilesInRow * tileSize;
+        return new Tile(x, y, Math.min(tileSize, maxCols - x), Math.min(tileSize, maxRows - y));
+    }
+
     /**
      * Function for thread-safe manipulating of main follow up Pixel object - this
      * function is critical section for all the threads, and the pixel manager data
@@ -123,10 +177,28 @@ class PixelManager {
      * Finish pixel processing by updating and printing of progress percentage
      */
     void pixelDone() {
+        pixelsDone(1);
+    }
+
+    /**
+     * Finish tile processing by updating and printing of progress percentage
+     *
+     * @param tile the processed tile
+     */
+    void tileDone(Tile tile) {
+        pixelsDone(tile.pixels());
+    }
+
+    /**
+     * Finish processing of several pixels by updating and printing of progress percentage
+     *
+     * @param amount the amount of the processed pixels
+     */
+    private void pixelsDone(int amount) {
         boolean flag = false;
         int percentage = 0;
         synchronized (mutexPixels) {
-            ++pixels;
+            pixels += amount;
             if (print) {
                 percentage = (int) (1000l * pixels / totalPixels);
                 if (percentage - lastPrinted >= printInterval) {
@@ -0,0 +1,358 @@
+package renderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * PNG encoder which compresses the image in parallel.<br>
+ * The image is cut into horizontal strips of rows. Every strip is filtered and
+ * compressed by its own {@link Deflater} in a pool thread, and the strips are
+ * written in order through a {@link FileChannel} as soon as they are ready. The
+ * compressed strips are parts of a single zlib stream (like pigz does it): each
+ * strip is primed with the last 32KB of the preceding data as its dictionary and
+ * ends with a sync flush, so the compression ratio is close to the one of a
+ * single-threaded encoder.
+ */
+class PngEncoder {
+    /**
+     * PNG file signature
+     */
+    private static final byte[] SIGNATURE = { (byte) 137, 'P', 'N', 'G', '\r', '\n', 26, '\n' };
+    /**
+     * zlib stream header - deflate with 32KB window, no preset dictionary
+     */
+    private static final byte[] ZLIB_HEADER = { 0x78, (byte) 0x9C };
+    /**
+     * Size of the deflate window - the length of a strip's dictionary
+     */
+    private static final int WINDOW = 32 * 1024;
+    /**
+     * Minimal amount of raw bytes in a strip, so the dictionary overhead stays small
+     */
+    private static final int MIN_STRIP_BYTES = 256 * 1024;
+    /**
+     * Bytes per pixel - 8-bit RGB
+     */
+    private static final int BPP = 3;
+    /**
+     * Modulus of Adler-32 checksum
+     */
+    private static final long ADLER_BASE = 65521;
+
+    /**
+     * Compression level of the deflaters
+     */
+    private final int level;
+    /**
+     * Amount of compressing threads
+     */
+    private final int threadsCount;
+
+    /**
+     * Constructs an encoder with default compression level and a thread per processor
+     */
+    PngEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an encoder
+     *
+     * @param level        compression level (0..9 or {@link Deflater#DEFAULT_COMPRESSION})
+     * @param threadsCount amount of compressing threads, positive
+     */
+    PngEncoder(int level, int threadsCount) {
+        if (threadsCount <= 0)
+            throw new IllegalArgumentException("Threads count must be positive");
+        this.level = level;
+        this.threadsCount = threadsCount;
+    }
+
+    /**
+     * Compressed strip of rows
+     *
+     * @param data   the deflated data of the strip
+     * @param adler  Adler-32 checksum of the raw (filtered) data of the strip
+     * @param length the length of the raw data of the strip
+     */
+    private record Strip(byte[] data, long adler, long length) {
+    }
+
+    /**
+     * Writes the framebuffer into a PNG file (8-bit RGB), every component bigger than 255 is set to 255
+     *
+     * @param framebuffer the image
+     * @param path        the file
+     * @throws IOException in case of a failure in writing the file
+     */
+    void write(Framebuffer framebuffer, Path path) throws IOException {
+        int width = framebuffer.getWidth();
+        int height = framebuffer.getHeight();
+        int rowLength = 1 + width * BPP;
+        int stripRows = Math.max(1, Math.min(height, MIN_STRIP_BYTES / rowLength));
+        int strips = (height + stripRows - 1) / stripRows;
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadsCount, strips));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(SIGNATURE));
+            writeChunk(channel, "IHDR", ByteBuffer.allocate(13) //
+                    .putInt(width).putInt(height) //
+                    .put((byte) 8) // bit depth
+                    .put((byte) 2) // color type - RGB
+                    .put((byte) 0).put((byte) 0).put((byte) 0) // compression, filter, no interlace
+                    .array());
+
+            // a bounded window of strips in progress, so the memory does not depend on the image size
+            Queue<Future<Strip>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            for (; submitted < strips && submitted < 2 * threadsCount; ++submitted)
+                pending.add(submit(executor, framebuffer, submitted, stripRows, submitted == strips - 1));
+
+            long adler = 1;
+            for (int i = 0; i < strips; ++i) {
+                Strip strip = take(pending.remove());
+                if (submitted < strips) {
+                    pending.add(submit(executor, framebuffer, submitted, stripRows, submitted == strips - 1));
+                    ++submitted;
+                }
+                adler = combineAdler(adler, strip.adler(), strip.length());
+
+                ByteBuffer idat = ByteBuffer.allocate(strip.data().length + 6);
+                if (i == 0) idat.put(ZLIB_HEADER);
+                idat.put(strip.data());
+                if (i == strips - 1) idat.putInt((int) adler);
+                writeChunk(channel, "IDAT", idat.array(), idat.position());
+            }
+            writeChunk(channel, "IEND", new byte[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits compression of a strip
+     *
+     * @param executor    the pool of the compressing threads
+     * @param framebuffer the image
+     * @param index       index of the strip
+     * @param stripRows   amount of rows per strip
+     * @param last        whether it is the last strip of the image
+     * @return the future compressed strip
+     */
+    private Future<Strip> submit(ExecutorService executor, Framebuffer framebuffer, int index, int stripRows,
+                                 boolean last) {
+        return executor.submit(() -> compress(framebuffer, index * stripRows,
+                Math.min(framebuffer.getHeight(), (index + 1) * stripRows), last));
+    }
+
+    /**
+     * Waits for a compressed strip
+     *
+     * @param future the future strip
+     * @return the strip
+     * @throws IOException if the compression has failed or the waiting is interrupted
+     */
+    private static Strip take(Future<Strip> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("PNG encoding is interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("PNG compression failure", e.getCause());
+        }
+    }
+
+    /**
+     * Filters and compresses a strip of rows. The rows preceding the strip (up to the size of the
+     * deflate window) are filtered again to serve as the dictionary - the filtering is deterministic,
+     * so they are identical to the data the decoder already has in its window.
+     *
+     * @param framebuffer the image
+     * @param first       the first row of the strip
+     * @param end         the row after the last row of the strip
+     * @param last        whether it is the last strip of the image
+     * @return the compressed strip
+     */
+    private Strip compress(Framebuffer framebuffer, int first, int end, boolean last) {
+        int rowLength = 1 + framebuffer.getWidth() * BPP;
+        int dictionaryStart = Math.max(0, first - (WINDOW + rowLength - 1) / rowLength);
+        byte[] raw = new byte[(end - dictionaryStart) * rowLength];
+
+        byte[] previous = new byte[rowLength - 1];
+        byte[] current = new byte[rowLength - 1];
+        byte[][] candidates = new byte[5][rowLength - 1];
+        if (dictionaryStart > 0) loadRow(framebuffer, dictionaryStart - 1, previous);
+        for (int y = dictionaryStart, offset = 0; y < end; ++y, offset += rowLength) {
+            loadRow(framebuffer, y, current);
+            filterRow(current, previous, candidates, raw, offset);
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int dictionaryLength = (first - dictionaryStart) * rowLength;
+        int length = raw.length - dictionaryLength;
+        Adler32 adler = new Adler32();
+        adler.update(raw, dictionaryLength, length);
+
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionaryLength > 0) {
+                int size = Math.min(WINDOW, dictionaryLength);
+                deflater.setDictionary(raw, dictionaryLength - size, size);
+            }
+            deflater.setInput(raw, dictionaryLength, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished())
+                    out.write(buffer, 0, deflater.deflate(buffer));
+            } else {
+                // sync flush ends the strip on a byte boundary without the final block mark
+                int count;
+                do {
+                    count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, count);
+                } while (count == buffer.length);
+            }
+            return new Strip(out.toByteArray(), adler.getValue(), length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Converts a row of the framebuffer into 8-bit RGB
+     *
+     * @param framebuffer the image
+     * @param y           the row
+     * @param row         the 8-bit RGB row
+     */
+    private static void loadRow(Framebuffer framebuffer, int y, byte[] row) {
+        float[] rgb = framebuffer.getData();
+        for (int i = 0, j = y * row.length; i < row.length; ++i, ++j)
+            row[i] = (byte) Framebuffer.toByte(rgb[j]);
+    }
+
+    /**
+     * Filters a row by the PNG filter type that gives the minimal sum of absolute differences
+     * (the common adaptive heuristic)
+     *
+     * @param current    the row
+     * @param previous   the previous (unfiltered) row, zeros for the first row of the image
+     * @param candidates scratch rows for the filter types
+     * @param out        the output
+     * @param offset     position of the filtered row (with its filter type byte) in the output
+     */
+    private static void filterRow(byte[] current, byte[] previous, byte[][] candidates, byte[] out, int offset) {
+        long[] sums = new long[candidates.length];
+        for (int i = 0; i < current.length; ++i) {
+            int x = current[i] & 0xFF;
+            int a = i < BPP ? 0 : current[i - BPP] & 0xFF;
+            int b = previous[i] & 0xFF;
+            int c = i < BPP ? 0 : previous[i - BPP] & 0xFF;
+            candidates[0][i] = (byte) x;
+            candidates[1][i] = (byte) (x - a);
+            candidates[2][i] = (byte) (x - b);
+            candidates[3][i] = (byte) (x - ((a + b) >> 1));
+            candidates[4][i] = (byte) (x - paeth(a, b, c));
+            for (int f = 0; f < candidates.length; ++f)
+                sums[f] += Math.abs(candidates[f][i]);
+        }
+        int best = 0;
+        for (int f = 1; f < candidates.length; ++f)
+            if (sums[f] < sums[best]) best = f;
+        out[offset] = (byte) best;
+        System.arraycopy(candidates[best], 0, out, offset + 1, current.length);
+    }
+
+    /**
+     * Paeth predictor of PNG
+     *
+     * @param a the left byte
+     * @param b the upper byte
+     * @param c the upper left byte
+     * @return the predicted byte
+     */
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) return a;
+        return pb <= pc ? b : c;
+    }
+
+    /**
+     * Combines the Adler-32 checksums of two consecutive blocks (as adler32_combine of zlib)
+     *
+     * @param adler1  checksum of the first block
+     * @param adler2  checksum of the second block
+     * @param length2 length of the second block
+     * @return checksum of the both blocks
+     */
+    static long combineAdler(long adler1, long adler2, long length2) {
+        long remainder = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = remainder * sum1 % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += (adler1 >>> 16 & 0xFFFF) + (adler2 >>> 16 & 0xFFFF) + ADLER_BASE - remainder;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum1 >= ADLER_BASE) sum1 -= ADLER_BASE;
+        if (sum2 >= ADLER_BASE << 1) sum2 -= ADLER_BASE << 1;
+        if (sum2 >= ADLER_BASE) sum2 -= ADLER_BASE;
+        return sum1 | sum2 << 16;
+    }
+
+    /**
+     * Writes a PNG chunk
+     *
+     * @param channel the file
+     * @param type    the chunk type
+     * @param data    the chunk data
+     * @throws IOException in case of a failure in writing the file
+     */
+    private static void writeChunk(FileChannel channel, String type, byte[] data) throws IOException {
+        writeChunk(channel, type, data, data.length);
+    }
+
+    /**
+     * Writes a PNG chunk
+     *
+     * @param channel the file
+     * @param type    the chunk type
+     * @param data    the chunk data
+     * @param length  the length of the data
+     * @throws IOException in case of a failure in writing the file
+     */
+    private static void writeChunk(FileChannel channel, String type, byte[] data, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(length).put(typeBytes).flip();
+        ByteBuffer body = ByteBuffer.wrap(data, 0, length);
+        ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip();
+        ByteBuffer[] buffers = { header, body, trailer };
+        while (trailer.hasRemaining())
+            channel.write(buffers);
+    }
+}
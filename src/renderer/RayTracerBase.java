@@ -1,6 +1,7 @@
 package renderer;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Ray;
 import scene.Scene;
 
@@ -14,6 +15,12 @@ public abstract class RayTracerBase {
      */
     protected Scene scene;
 
+    /**
+     * Russian roulette threshold - a path whose accumulated coefficient is below it is terminated
+     * randomly, 0 when the roulette is off
+     */
+    protected double rouletteThreshold = 0;
+
     /**
      * Constructs a RayTracerBase with the given scene.
      *
@@ -23,6 +30,54 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Sets Russian roulette termination of the paths. A path whose accumulated coefficient (its biggest
+     * component) k is below the threshold survives with probability k / threshold, and the contribution
+     * of a surviving path is divided by that probability - so the expected color is unchanged while the
+     * low contribution paths are mostly not traced.
+     *
+     * @param threshold the threshold in range (0, 1], or 0 to turn the roulette off
+     * @return the ray tracer itself
+     */
+    public RayTracerBase setRussianRoulette(double threshold) {
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Russian roulette threshold must be in range [0, 1]");
+        }
+        rouletteThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Plays the Russian roulette for continuing a path, by the random numbers of the current pixel sample
+     *
+     * @param k the accumulated coefficient of the path
+     * @return the survival probability of the path in range (0, 1] if it continues, 0 if it is terminated
+     */
+    protected double survival(Double3 k) {
+        if (rouletteThreshold == 0) return 1;
+        double max = k.max();
+        if (max >= rouletteThreshold) return 1;
+        double probability = max / rouletteThreshold;
+        return SampleRandom.nextDouble() < probability ? probability : 0;
+    }
+
+    /**
+     * Prepares the ray tracer for a render of an image - drops the state kept between the rays of
+     * a previous render. The default implementation keeps no state.
+     */
+    protected void beginRender() {
+    }
+
+    /**
+     * Whether the ray tracer can render progressive passes - a ray tracer whose colors depend on a
+     * state kept during the render would not converge over the passes. The default implementation can.
+     *
+     * @return true if progressive passes are supported
+     */
+    protected boolean isProgressiveSupported() {
+        return true;
+    }
+
     /**
      * Traces a ray and returns the color at the point where the ray intersects an object in the scene.
      *
@@ -0,0 +1,240 @@
+package renderer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Checkpoint of a tiled render in a memory-mapped file, for resuming a render which
+ * has been interrupted (crash, preemption of the node).<br>
+ * The file holds a header, a bitmap of the completed tiles and the float RGB colors
+ * of the whole image. The rendered tiles are written into the mapped memory at once,
+ * and periodically the colors are forced to the disk and only then the tiles are
+ * marked as completed in the bitmap (which is forced too) - so a tile is never marked
+ * before its colors are on the disk.
+ */
+public class RenderCheckpoint implements TileListener, Closeable {
+    /**
+     * Magic number of the file - "RTCK"
+     */
+    private static final int MAGIC = 0x5254434B;
+    /**
+     * Version of the file layout
+     */
+    private static final int VERSION = 1;
+    /**
+     * Length of the header
+     */
+    private static final int HEADER = 32;
+    /**
+     * Bytes per pixel
+     */
+    private static final int PIXEL_BYTES = 12;
+    /**
+     * Maximal length of a mapped segment of the colors
+     */
+    private static final long SEGMENT = 1L << 30;
+
+    /**
+     * Amount of pixels by width
+     */
+    private final int width;
+    /**
+     * Size of the side of the tiles
+     */
+    private final int tileSize;
+    /**
+     * Amount of tiles in a row of tiles
+     */
+    private final int tilesInRow;
+    /**
+     * Mapped header and bitmap of the completed tiles
+     */
+    private final MappedByteBuffer meta;
+    /**
+     * Mapped colors, each segment holds whole rows of pixels
+     */
+    private final MappedByteBuffer[] segments;
+    /**
+     * Amount of rows of pixels in a segment
+     */
+    private final int segmentRows;
+    /**
+     * Completed tiles (those marked in the file and those waiting for the next checkpoint)
+     */
+    private final BitSet completed = new BitSet();
+    /**
+     * Tiles completed since the last checkpoint
+     */
+    private final BitSet pending = new BitSet();
+    /**
+     * Interval between the checkpoints in nanoseconds
+     */
+    private final long interval;
+    /**
+     * Time of the last checkpoint
+     */
+    private long lastCheckpoint = System.nanoTime();
+
+    /**
+     * Opens a checkpoint file
+     *
+     * @param path     the file
+     * @param width    amount of pixels by width
+     * @param height   amount of pixels by height
+     * @param tileSize size of the side of the tiles
+     * @param interval interval between the checkpoints in seconds
+     * @param resume   true for resuming from an existing file (if it is of the same image dimensions
+     *                 and tiles size, otherwise it is started anew), false for starting a new checkpoint
+     * @throws IOException in case of a failure in opening the file
+     */
+    public RenderCheckpoint(Path path, int width, int height, int tileSize, double interval, boolean resume)
+            throws IOException {
+        if (width <= 0 || height <= 0 || tileSize <= 0)
+            throw new IllegalArgumentException("Image dimensions and tile size must be positive");
+        this.width = width;
+        this.tileSize = tileSize;
+        this.interval = (long) (interval * 1e9);
+        tilesInRow = (width + tileSize - 1) / tileSize;
+        int tiles = tilesInRow * ((height + tileSize - 1) / tileSize);
+        // the colors start on 8 bytes boundary
+        long metaLength = HEADER + ((tiles + 63) / 64) * 8L;
+        long length = metaLength + (long) width * height * PIXEL_BYTES;
+
+        resume = resume && Files.exists(path) && Files.size(path) == length;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (!resume) {
+                channel.truncate(0);
+                // the last byte gives the file its full size, the rest is read as zeros
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
+            meta = channel.map(FileChannel.MapMode.READ_WRITE, 0, metaLength);
+            meta.order(ByteOrder.LITTLE_ENDIAN);
+            // a checkpoint of another render layout is started anew
+            if (resume && !matches(width, height, tiles))
+                for (long i = HEADER; i < metaLength; ++i)
+                    meta.put((int) i, (byte) 0);
+            meta.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, width).putInt(12, height)
+                    .putInt(16, tileSize).putInt(20, tiles);
+            for (int i = 0; i < tiles; ++i)
+                if ((meta.get(HEADER + i / 8) & 1 << i % 8) != 0) completed.set(i);
+
+            segmentRows = (int) Math.max(1, Math.min(height, SEGMENT / ((long) width * PIXEL_BYTES)));
+            segments = new MappedByteBuffer[(height + segmentRows - 1) / segmentRows];
+            for (int s = 0; s < segments.length; ++s) {
+                long rows = Math.min(segmentRows, height - (long) s * segmentRows);
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        metaLength + (long) s * segmentRows * width * PIXEL_BYTES, rows * width * PIXEL_BYTES);
+                segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        meta.force();
+    }
+
+    /**
+     * Checks the header of an existing checkpoint
+     *
+     * @param width  amount of pixels by width
+     * @param height amount of pixels by height
+     * @param tiles  amount of tiles
+     * @return true if the checkpoint is of the same render layout
+     */
+    private boolean matches(int width, int height, int tiles) {
+        return meta.getInt(0) == MAGIC && meta.getInt(4) == VERSION && meta.getInt(8) == width
+                && meta.getInt(12) == height && meta.getInt(16) == tileSize && meta.getInt(20) == tiles;
+    }
+
+    /**
+     * Index of a tile
+     *
+     * @param tile the tile
+     * @return the index
+     */
+    private int index(Tile tile) {
+        return tile.y() / tileSize * tilesInRow + tile.x() / tileSize;
+    }
+
+    /**
+     * Checks whether a tile has been completed
+     *
+     * @param tile the tile
+     * @return true if the tile is completed
+     */
+    public synchronized boolean isCompleted(Tile tile) {
+        return completed.get(index(tile));
+    }
+
+    /**
+     * Amount of the completed tiles
+     *
+     * @return the amount of the tiles
+     */
+    public synchronized int completedTiles() {
+        return completed.cardinality();
+    }
+
+    /**
+     * Reads the colors of a (completed) tile
+     *
+     * @param tile the tile
+     * @param rgb  the colors of the tile pixels, row by row from the top, red, green and blue per pixel
+     */
+    public void readTile(Tile tile, float[] rgb) {
+        for (int r = 0, i = 0; r < tile.height(); ++r) {
+            int y = tile.y() + r;
+            MappedByteBuffer segment = segments[y / segmentRows];
+            int position = ((y % segmentRows) * width + tile.x()) * PIXEL_BYTES;
+            for (int end = i + tile.width() * 3; i < end; ++i, position += 4)
+                rgb[i] = segment.getFloat(position);
+        }
+    }
+
+    @Override
+    public void tileRendered(Tile tile, float[] rgb) {
+        for (int r = 0, i = 0; r < tile.height(); ++r) {
+            int y = tile.y() + r;
+            MappedByteBuffer segment = segments[y / segmentRows];
+            int position = ((y % segmentRows) * width + tile.x()) * PIXEL_BYTES;
+            for (int end = i + tile.width() * 3; i < end; ++i, position += 4)
+                segment.putFloat(position, rgb[i]);
+        }
+        synchronized (this) {
+            int index = index(tile);
+            completed.set(index);
+            pending.set(index);
+            if (System.nanoTime() - lastCheckpoint >= interval) checkpoint();
+        }
+    }
+
+    /**
+     * Forces the colors to the disk and then marks the tiles completed since the
+     * previous checkpoint in the bitmap and forces it too
+     */
+    public synchronized void checkpoint() {
+        if (!pending.isEmpty()) {
+            for (MappedByteBuffer segment : segments)
+                segment.force();
+            for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1))
+                meta.put(HEADER + i / 8, (byte) (meta.get(HEADER + i / 8) | 1 << i % 8));
+            meta.force();
+            pending.clear();
+        }
+        lastCheckpoint = System.nanoTime();
+    }
+
+    /**
+     * Makes the final checkpoint
+     */
+    @Override
+    public void close() {
+        checkpoint();
+    }
+}
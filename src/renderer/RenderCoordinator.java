@@ -0,0 +1,238 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coordinator of a render distributed among worker processes ({@link RenderWorker}).<br>
+ * The coordinator cuts the image into tiles and listens on a TCP port. Every
+ * connection of a worker pulls a tile, renders it and sends back its colors, which
+ * the coordinator puts into the image writer - so the faster workers get more
+ * tiles. The workers build the scene and the camera once, by the name of a
+ * {@link CameraFactory} class sent by the coordinator. A tile of a worker which
+ * fails, disconnects or does not send the tile within the timeout is given to
+ * another worker. The render fails if there is no connected worker for the timeout.
+ * <p>
+ * Protocol (big endian): the coordinator sends the factory class name (UTF) and
+ * the image resolution (two ints); then it repeatedly sends a tile (four ints: x,
+ * y, width, height) and receives its colors (width * height * 3 floats), until it
+ * sends a tile of zero width.
+ */
+public class RenderCoordinator {
+    /**
+     * Interval of checking for the render completion while waiting, in milliseconds
+     */
+    private static final int POLL = 100;
+    /**
+     * Default timeout of a worker, in milliseconds
+     */
+    private static final int DEFAULT_TIMEOUT = 60000;
+
+    /**
+     * Name of the camera factory class of the workers
+     */
+    private final String factoryName;
+    /**
+     * The image writer receiving the rendered image
+     */
+    private final ImageWriter imageWriter;
+    /**
+     * Size of the side of the tiles
+     */
+    private final int tileSize;
+    /**
+     * Receiver of the tiles as soon as they are received, null if there is none
+     */
+    private TileListener tileListener = null;
+    /**
+     * Time a worker may take to render a tile, and time the render may have no connected worker,
+     * in milliseconds
+     */
+    private int timeout = DEFAULT_TIMEOUT;
+    /**
+     * The listening socket
+     */
+    private final ServerSocket server;
+    /**
+     * Tiles waiting for a worker
+     */
+    private final BlockingQueue<Tile> tiles = new LinkedBlockingQueue<>();
+    /**
+     * Count of the tiles which are not received yet
+     */
+    private CountDownLatch remaining;
+    /**
+     * Count of the connected workers
+     */
+    private final AtomicInteger connections = new AtomicInteger();
+    /**
+     * Time of the last connection, received tile or disconnection, in milliseconds
+     */
+    private volatile long lastActivity;
+    /**
+     * logger for reporting worker failures
+     */
+    private final Logger logger = Logger.getLogger("RenderCoordinator");
+
+    /**
+     * Constructs a coordinator listening on a port
+     *
+     * @param factory     the camera factory class of the workers
+     * @param imageWriter the image writer receiving the image, its resolution must be the one of the
+     *                    camera of the factory
+     * @param tileSize    size of the side of the tiles
+     * @param port        the TCP port, 0 for any free port
+     * @throws IOException in case of a failure in opening the port
+     */
+    public RenderCoordinator(Class<? extends CameraFactory> factory, ImageWriter imageWriter, int tileSize, int port)
+            throws IOException {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.factoryName = factory.getName();
+        this.imageWriter = imageWriter;
+        this.tileSize = tileSize;
+        server = new ServerSocket(port);
+        server.setSoTimeout(POLL);
+    }
+
+    /**
+     * The port the coordinator listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Sets a receiver of the tiles as soon as they are received from the workers
+     *
+     * @param tileListener the receiver of the tiles
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setTileListener(TileListener tileListener) {
+        this.tileListener = tileListener;
+        return this;
+    }
+
+    /**
+     * Sets the timeout of the workers - the time a worker may take to render a tile before its tile
+     * is given to another worker, and the time the render may wait with no connected worker before
+     * it fails
+     *
+     * @param timeout the timeout in milliseconds, positive
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setTimeout(int timeout) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("Timeout must be positive");
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Renders the image by the workers - waits until all the tiles are received. The workers may
+     * connect before or during the render. The port is closed at the end.
+     *
+     * @return the coordinator itself
+     * @throws IOException in case of a failure of the listening socket, if there is no connected worker
+     *                     for the timeout or if the waiting is interrupted
+     */
+    public RenderCoordinator render() throws IOException {
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        PixelManager pixelManager = new PixelManager(nY, nX, tileSize, 0);
+        for (Tile tile = pixelManager.nextTile(); tile != null; tile = pixelManager.nextTile())
+            tiles.add(tile);
+        remaining = new CountDownLatch(tiles.size());
+        imageWriter.getFramebuffer();
+
+        lastActivity = System.currentTimeMillis();
+        try (server) {
+            while (remaining.getCount() > 0) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    lastActivity = System.currentTimeMillis();
+                    Thread connection = new Thread(() -> serve(socket, nX, nY));
+                    connection.setDaemon(true);
+                    connection.start();
+                } catch (SocketTimeoutException e) {
+                    if (Thread.interrupted())
+                        throw new InterruptedIOException("Distributed render is interrupted");
+                    if (connections.get() == 0 && System.currentTimeMillis() - lastActivity > timeout)
+                        throw new IOException("No worker is connected for " + timeout + " ms");
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Serves the connection of a worker - gives it tiles while there are any and the render
+     * is not over
+     *
+     * @param socket the connection
+     * @param nX     the number of pixels in the x direction
+     * @param nY     the number of pixels in the y direction
+     */
+    private void serve(Socket socket, int nX, int nY) {
+        Tile tile = null;
+        try (socket) {
+            socket.setSoTimeout(timeout);
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeUTF(factoryName);
+            out.writeInt(nX);
+            out.writeInt(nY);
+
+            byte[] bytes = new byte[tileSize * tileSize * 3 * Float.BYTES];
+            float[] rgb = new float[tileSize * tileSize * 3];
+            while (remaining.getCount() > 0 && !server.isClosed()) {
+                tile = tiles.poll(POLL, TimeUnit.MILLISECONDS);
+                if (tile == null) continue; // the tiles in progress may return
+                out.writeInt(tile.x());
+                out.writeInt(tile.y());
+                out.writeInt(tile.width());
+                out.writeInt(tile.height());
+                out.flush();
+
+                int length = tile.pixels() * 3;
+                in.readFully(bytes, 0, length * Float.BYTES);
+                ByteBuffer.wrap(bytes, 0, length * Float.BYTES).asFloatBuffer().get(rgb, 0, length);
+                imageWriter.getFramebuffer().setTile(tile, rgb);
+                if (tileListener != null) tileListener.tileRendered(tile, rgb);
+                tile = null;
+                lastActivity = System.currentTimeMillis();
+                remaining.countDown();
+            }
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.flush();
+        } catch (IOException | InterruptedException e) {
+            logger.log(Level.WARNING, "Worker " + socket.getRemoteSocketAddress() + " failed", e);
+        } finally {
+            // the tile of a failed worker is given to another one
+            if (tile != null) tiles.add(tile);
+            lastActivity = System.currentTimeMillis();
+            connections.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+
+/**
+ * Worker of a distributed render - connects to a {@link RenderCoordinator}, builds
+ * the camera once by the factory class named by the coordinator, and renders the
+ * tiles it pulls until the coordinator has no more tiles. A worker opens several
+ * connections (one per rendering thread), each of them pulls its own tiles.
+ * A connection which is refused, closed or reset before the coordinator names the factory
+ * finds the render over (the coordinator closes its port when it receives the last
+ * tile), and it ends normally.
+ * <p>
+ * Run as a process: {@code java renderer.RenderWorker <host> <port> [threads]}
+ * with the classes of the scene on the class path.
+ */
+public class RenderWorker {
+    /**
+     * Host of the coordinator
+     */
+    private final String host;
+    /**
+     * Port of the coordinator
+     */
+    private final int port;
+    /**
+     * The camera, built by the first connection
+     */
+    private Camera camera = null;
+
+    /**
+     * Constructs a worker of a coordinator
+     *
+     * @param host host of the coordinator
+     * @param port port of the coordinator
+     */
+    public RenderWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Renders the tiles until the coordinator has no more tiles
+     *
+     * @param threadsCount amount of rendering threads (connections), positive
+     * @throws IOException in case of a failure of all the connections (a finished render is not a failure)
+     */
+    public void run(int threadsCount) throws IOException {
+        if (threadsCount <= 0)
+            throw new IllegalArgumentException("Threads count must be positive");
+        var failures = new LinkedList<IOException>();
+        var threads = new LinkedList<Thread>();
+        for (int i = 0; i < threadsCount; ++i)
+            threads.add(new Thread(() -> {
+                try {
+                    pull();
+                } catch (IOException e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        for (var thread : threads) thread.start();
+        try {
+            for (var thread : threads) thread.join();
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        if (failures.size() == threadsCount) throw failures.getFirst();
+    }
+
+    /**
+     * Pulls and renders the tiles through a single connection, if the render is not over
+     *
+     * @throws IOException in case of a failure of the connection or of the camera creation
+     */
+    private void pull() throws IOException {
+        Socket socket;
+        try {
+            socket = new Socket(host, port);
+        } catch (ConnectException e) {
+            return; // the render is over
+        }
+        try (socket) {
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            String factoryName;
+            try {
+                factoryName = in.readUTF();
+            } catch (EOFException | SocketException e) {
+                return; // the render was over before the connection was served
+            }
+            int nX = in.readInt();
+            int nY = in.readInt();
+            Camera camera = getCamera(factoryName);
+
+            float[] rgb = new float[0];
+            ByteBuffer bytes = ByteBuffer.allocate(0);
+            while (true) {
+                Tile tile = new Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                if (tile.width() == 0) return;
+                int length = tile.pixels() * 3;
+                if (rgb.length < length) {
+                    rgb = new float[length];
+                    bytes = ByteBuffer.allocate(length * Float.BYTES);
+                }
+                camera.renderTile(nX, nY, tile, rgb);
+                bytes.clear();
+                bytes.asFloatBuffer().put(rgb, 0, length);
+                out.write(bytes.array(), 0, length * Float.BYTES);
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Builds the camera on the first call
+     *
+     * @param factoryName name of the camera factory class
+     * @return the camera
+     * @throws IOException if the factory can not be created
+     */
+    private synchronized Camera getCamera(String factoryName) throws IOException {
+        if (camera == null) {
+            try {
+                camera = Class.forName(factoryName).asSubclass(CameraFactory.class)
+                        .getDeclaredConstructor().newInstance().createCamera();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IOException("Cannot create camera factory " + factoryName, e);
+            }
+        }
+        return camera;
+    }
+
+    /**
+     * Runs a worker process
+     *
+     * @param args host and port of the coordinator, and optionally the amount of rendering threads
+     *             (the amount of the processors by default)
+     * @throws IOException in case of a failure of all the connections
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java renderer.RenderWorker <host> <port> [threads]");
+            System.exit(1);
+        }
+        int threadsCount = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        new RenderWorker(args[0], Integer.parseInt(args[1])).run(threadsCount);
+    }
+}
@@ -0,0 +1,99 @@
+package renderer;
+
+/**
+ * Deterministic counter-based random numbers for the sampling of the render.<br>
+ * A random number is a hash of its key - the pixel, the sample of the pixel and the
+ * dimension (the running number of the random numbers drawn for the sample, so it
+ * grows with the bounces of the path) - instead of a state shared by the threads.
+ * The camera sets the pixel and the sample of the current thread before tracing, so
+ * every pixel gets the same numbers regardless of the amount of threads and of the
+ * order of the pixels, and the threads do not contend on a shared seed.
+ */
+public final class SampleRandom {
+    /**
+     * Seed of the hash
+     */
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    /**
+     * Scale of 53 random bits into [0, 1)
+     */
+    private static final double UNIT = 0x1.0p-53;
+
+    /**
+     * Cursor of the current thread - the key of the next random number
+     */
+    private static final class Cursor {
+        /** Hash of the pixel and the sample */
+        long key = SEED;
+        /** The next dimension */
+        int dimension = 0;
+    }
+
+    /**
+     * Cursors of the threads
+     */
+    private static final ThreadLocal<Cursor> CURSOR = ThreadLocal.withInitial(Cursor::new);
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SampleRandom() {
+    }
+
+    /**
+     * Sets the pixel and the sample of the current thread - the numbers start from the first dimension
+     *
+     * @param pixel  index of the pixel in the image
+     * @param sample index of the sample of the pixel
+     */
+    public static void setPixel(long pixel, int sample) {
+        Cursor cursor = CURSOR.get();
+        cursor.key = mix(mix(SEED ^ pixel) ^ sample);
+        cursor.dimension = 0;
+    }
+
+    /**
+     * The next random number of the current thread's pixel sample
+     *
+     * @return uniform random number in [0, 1)
+     */
+    public static double nextDouble() {
+        Cursor cursor = CURSOR.get();
+        return toUnit(mix(cursor.key ^ cursor.dimension++));
+    }
+
+    /**
+     * Stateless random number of a key
+     *
+     * @param pixel     index of the pixel in the image
+     * @param sample    index of the sample of the pixel
+     * @param dimension index of the number in the sample
+     * @return uniform random number in [0, 1)
+     */
+    public static double uniform(long pixel, int sample, int dimension) {
+        return toUnit(mix(mix(mix(SEED ^ pixel) ^ sample) ^ dimension));
+    }
+
+    /**
+     * Hash of 64 bits (a step of SplitMix64)
+     *
+     * @param z the value
+     * @return the hash
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+        return z ^ z >>> 31;
+    }
+
+    /**
+     * Converts the upper 53 bits of a hash into [0, 1)
+     *
+     * @param z the hash
+     * @return the number
+     */
+    private static double toUnit(long z) {
+        return (z >>> 11) * UNIT;
+    }
+}
@@ -0,0 +1,159 @@
+package renderer;
+
+/**
+ * Generators of 2D sample points in the unit square [0, 1)<sup>2</sup>, used for
+ * the rays of a beam (glossy and blurry surfaces) and for the rays of a pixel
+ * (anti-aliasing).<br>
+ * Besides plain random points the generators give stratified and low discrepancy
+ * (quasi Monte Carlo) points, which cover the square more evenly and so reach the
+ * same noise level with fewer rays. Every set of points is randomized by the
+ * deterministic random numbers of the current pixel sample ({@link SampleRandom}),
+ * so neighbouring pixels do not repeat the same pattern.
+ */
+public enum Sampler {
+    /**
+     * Independent uniform random points
+     */
+    RANDOM {
+        @Override
+        public void generate(int count, double[] xs, double[] ys) {
+            for (int i = 0; i < count; ++i) {
+                xs[i] = SampleRandom.nextDouble();
+                ys[i] = SampleRandom.nextDouble();
+            }
+        }
+    },
+    /**
+     * Jittered grid - a random point in each cell of a grid of (about) square cells
+     */
+    STRATIFIED {
+        @Override
+        public void generate(int count, double[] xs, double[] ys) {
+            int columns = (int) Math.ceil(Math.sqrt(count));
+            int rows = (count + columns - 1) / columns;
+            for (int i = 0; i < count; ++i) {
+                xs[i] = (i % columns + SampleRandom.nextDouble()) / columns;
+                ys[i] = (i / columns + SampleRandom.nextDouble()) / rows;
+            }
+        }
+    },
+    /**
+     * Halton sequence of bases 2 and 3, randomized by a toroidal shift (Cranley-Patterson rotation)
+     */
+    HALTON {
+        @Override
+        public void generate(int count, double[] xs, double[] ys) {
+            double shiftX = SampleRandom.nextDouble();
+            double shiftY = SampleRandom.nextDouble();
+            for (int i = 0; i < count; ++i) {
+                xs[i] = fraction(radicalInverse(i + 1, 2) + shiftX);
+                ys[i] = fraction(radicalInverse(i + 1, 3) + shiftY);
+            }
+        }
+    },
+    /**
+     * Sobol sequence (first two dimensions) randomized by nested uniform (Owen) scrambling.
+     * The scrambling keeps the stratification of the sequence - any 2<sup>k</sup> first
+     * points have one point in each cell of every 2<sup>k</sup> cells grid of power of two sizes
+     */
+    SOBOL {
+        @Override
+        public void generate(int count, double[] xs, double[] ys) {
+            int seedX = (int) (SampleRandom.nextDouble() * 0x1p32);
+            int seedY = (int) (SampleRandom.nextDouble() * 0x1p32);
+            for (int i = 0; i < count; ++i) {
+                int x = 0;
+                int y = 0;
+                int v = 1 << 31;
+                for (int index = i, bit = 0; index != 0; index >>>= 1, ++bit, v ^= v >>> 1)
+                    if ((index & 1) != 0) {
+                        x ^= 1 << 31 - bit;
+                        y ^= v;
+                    }
+                xs[i] = toUnit(scramble(x, seedX));
+                ys[i] = toUnit(scramble(y, seedY));
+            }
+        }
+    },
+    /**
+     * R2 sequence (by the plastic number), randomized by a toroidal shift
+     */
+    R2 {
+        /** Reciprocal of the plastic number */
+        private static final double A1 = 1 / 1.32471795724474602596;
+        /** Square of the reciprocal of the plastic number */
+        private static final double A2 = A1 * A1;
+
+        @Override
+        public void generate(int count, double[] xs, double[] ys) {
+            double shiftX = SampleRandom.nextDouble();
+            double shiftY = SampleRandom.nextDouble();
+            for (int i = 0; i < count; ++i) {
+                xs[i] = fraction(shiftX + A1 * (i + 1));
+                ys[i] = fraction(shiftY + A2 * (i + 1));
+            }
+        }
+    };
+
+    /**
+     * Generates sample points in the unit square
+     *
+     * @param count amount of the points
+     * @param xs    array for the x coordinates of the points (at least count long)
+     * @param ys    array for the y coordinates of the points (at least count long)
+     */
+    public abstract void generate(int count, double[] xs, double[] ys);
+
+    /**
+     * Fractional part of a non-negative number
+     *
+     * @param value the number
+     * @return the fractional part in [0, 1)
+     */
+    private static double fraction(double value) {
+        return value - Math.floor(value);
+    }
+
+    /**
+     * Radical inverse of an index - its digits in a base mirrored around the point
+     *
+     * @param index the index
+     * @param base  the base
+     * @return the radical inverse in [0, 1)
+     */
+    private static double radicalInverse(int index, int base) {
+        double result = 0;
+        double digit = 1d / base;
+        for (; index > 0; index /= base, digit /= base)
+            result += index % base * digit;
+        return result;
+    }
+
+    /**
+     * Nested uniform scrambling of the bits of a binary fraction, by the hash of Laine and Karras
+     * applied on the reversed bits (so each bit is permuted depending on the higher bits only)
+     *
+     * @param x    the bits of the fraction
+     * @param seed the scrambling seed
+     * @return the scrambled bits
+     */
+    private static int scramble(int x, int seed) {
+        x = Integer.reverse(x);
+        x += seed;
+        x ^= x * 0x6C50B47C;
+        x ^= x * 0xB82F1E52;
+        x ^= x * 0xC7AFE638;
+        x ^= x * 0x8D22F6E6;
+        return Integer.reverse(x);
+    }
+
+    /**
+     * Converts bits of a binary fraction into [0, 1)
+     *
+     * @param bits the bits of the fraction
+     * @return the number
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xFFFFFFFFL) * 0x1p-32;
+    }
+}
@@ -0,0 +1,68 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+import static primitives.Util.alignZero;
+
+/**
+ * The values of a hit which are needed through the whole shading of the hit - the
+ * normal (which is not cheap for some geometries), the view direction and their
+ * cosine, the material and the emission. They are calculated once per hit and passed
+ * down the shading pipeline.
+ */
+public final class ShadingContext {
+    /**
+     * The intersection point
+     */
+    public final GeoPoint gp;
+    /**
+     * The point of the hit
+     */
+    public final Point point;
+    /**
+     * The direction of the ray that hit the geometry
+     */
+    public final Vector v;
+    /**
+     * The normal of the geometry at the point
+     */
+    public final Vector n;
+    /**
+     * The cosine between the normal and the ray direction, 0 for a ray parallel to the surface
+     */
+    public final double nv;
+    /**
+     * The material of the geometry
+     */
+    public final Material material;
+    /**
+     * The emission of the geometry
+     */
+    public final Color emission;
+
+    /**
+     * Calculates the shading values of a hit
+     *
+     * @param gp  the intersection point
+     * @param ray the ray that intersected the geometry
+     */
+    public ShadingContext(GeoPoint gp, Ray ray) {
+        this.gp = gp;
+        point = gp.point;
+        v = ray.getDirection();
+        n = gp.geometry.getNormal(point);
+        nv = alignZero(n.dotProduct(v));
+        material = gp.geometry.getMaterial();
+        emission = gp.geometry.getEmission();
+    }
+
+    /**
+     * The direction of the mirror reflection of the ray
+     *
+     * @return the reflected direction
+     */
+    public Vector reflected() {
+        return v.subtract(n.scale(2 * nv));
+    }
+}
@@ -1,5 +1,8 @@
 package renderer;
 
+import geometries.Intersectable;
+import lighting.AreaLight;
+import lighting.LightDistribution;
 import lighting.LightSource;
 import primitives.*;
 import scene.*;
@@ -8,9 +11,10 @@ import static geometries.Intersectable.*;
 import static primitives.Util.alignZero;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 
 /**
  * SimpleRayTracer class extends RayTracerBase and is responsible for tracing rays in a scene and
@@ -18,8 +22,42 @@ import java.util.Random;
  */
 public class SimpleRayTracer extends RayTracerBase {
     private static final double DELTA = 0.1; // Small constant for moving the ray head to avoid self-intersection
-    private static final int MAX_CALC_COLOR_LEVEL = 10; // Maximum recursion level for global effects
-    private static final double MIN_CALC_COLOR_K = 0.001; // Minimum value for accumulated reflection/refraction coefficient
+    protected static final int MAX_CALC_COLOR_LEVEL = 10; // Maximum recursion level for global effects
+    protected static final double MIN_CALC_COLOR_K = 0.001; // Minimum value for accumulated reflection/refraction coefficient
+
+    /**
+     * Generator of the sample points of the glossy and blurry beams
+     */
+    protected Sampler sampler = Sampler.STRATIFIED;
+    /**
+     * Amount of rays of a glossy or blurry beam
+     */
+    private int beamSize = 9;
+    /**
+     * Amount of additional shadow rays towards an area light in the penumbra
+     */
+    private int shadowBeamSize = 16;
+    /**
+     * Amount of lights sampled per hit, 0 for evaluating all the lights
+     */
+    private int lightSamples = 0;
+    /**
+     * The last opaque occluder of the shadow rays towards each light, per rendering thread
+     */
+    private final ThreadLocal<Map<LightSource, Intersectable>> occluders =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+    /**
+     * Scratch accumulator of the local effects, per thread
+     */
+    private final ThreadLocal<ColorAccumulator> localColor = ThreadLocal.withInitial(ColorAccumulator::new);
+    /**
+     * Scratch vector of the reflected light directions, per thread
+     */
+    private final ThreadLocal<MutableVector> reflected = ThreadLocal.withInitial(MutableVector::new);
+    /**
+     * Cache of the blurry refraction beams of the camera rays' hits, null when there is no cache
+     */
+    private IrradianceCache irradianceCache = null;
 
     /**
      * Constructs a SimpleRayTracer with the specified scene.
@@ -30,6 +68,98 @@ public class SimpleRayTracer extends RayTracerBase {
         super(scene);
     }//v
 
+    /**
+     * Sets the generator of the sample points of the glossy and blurry beams
+     *
+     * @param sampler the generator
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("sampler cannot be null");
+        }
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     * Sets the amount of rays of a glossy or blurry beam
+     *
+     * @param beamSize the amount of rays
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setBeamSize(int beamSize) {
+        if (beamSize <= 0) {
+            throw new IllegalArgumentException("Beam size must be positive");
+        }
+        this.beamSize = beamSize;
+        return this;
+    }
+
+    /**
+     * Sets the amount of shadow rays towards an area light in the penumbra. The shadow of an area
+     * light is tested first by rays towards the center and the corners of the light only, and if
+     * they disagree (the point is partially shadowed) the beam of rays is added.
+     *
+     * @param shadowBeamSize the amount of rays
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setShadowBeamSize(int shadowBeamSize) {
+        if (shadowBeamSize <= 0) {
+            throw new IllegalArgumentException("Shadow beam size must be positive");
+        }
+        this.shadowBeamSize = shadowBeamSize;
+        return this;
+    }
+
+    /**
+     * Sets stochastic light selection - every hit is shaded by a fixed amount of lights chosen randomly
+     * in proportion to their power (and by the lights which are not sampled, e.g. directional lights),
+     * and their contributions are divided by their probabilities. So the shading cost of a hit does not
+     * depend on the amount of the lights, and the average of the samples of a pixel is the color by
+     * all the lights. With light culling the lights are chosen among the lights reaching the hit.
+     *
+     * @param lightSamples the amount of lights per hit, 0 for evaluating all the lights
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setLightSamples(int lightSamples) {
+        if (lightSamples < 0) {
+            throw new IllegalArgumentException("Amount of light samples cannot be negative");
+        }
+        this.lightSamples = lightSamples;
+        return this;
+    }
+
+    /**
+     * Sets caching of the blurry refraction beams (of materials with diffuseness) at the hits of the
+     * camera rays. A beam is traced only where no cached beam is close enough, and elsewhere the
+     * colors of the nearby cached beams are interpolated, so large smooth frosted surfaces trace the
+     * beams at a sparse set of points.<br>
+     * The cache is emptied at the start of every render. The colors depend on the order in which the
+     * hits fill the cache, so a multithreaded render is not deterministic, and the cache can not be
+     * used with progressive passes.
+     *
+     * @param radius the maximal distance between a cached beam and a hit using it, 0 for no cache
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setIrradianceCache(double radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Cache radius cannot be negative");
+        }
+        irradianceCache = radius == 0 ? null : new IrradianceCache(radius);
+        return this;
+    }
+
+    @Override
+    protected void beginRender() {
+        if (irradianceCache != null) irradianceCache.clear();
+    }
+
+    @Override
+    protected boolean isProgressiveSupported() {
+        return irradianceCache == null;
+    }
+
     @Override
     public Color traceRay(Ray ray) {
         GeoPoint closestPoint = scene.geometries.findClosestIntersection(ray);
@@ -44,79 +174,104 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return the color at the intersection point
      */
     private Color calcColor(GeoPoint gp, Ray ray) {
-        return calcColor(gp, ray, MAX_CALC_COLOR_LEVEL, new Double3(1.0))
+        return calcColor(new ShadingContext(gp, ray), MAX_CALC_COLOR_LEVEL, new Double3(1.0))
                 .add(scene.ambientLight.getIntensity());
     }
 
     /**
      * Recursively calculates the color at a given intersection point, considering local and global effects.
      *
-     * @param gp    the intersection point
-     * @param ray   the ray that intersected the geometry
-     * @param level the current recursion level
-     * @param k     the accumulated reflection/refraction coefficient
+     * @param context the shading values of the intersection point
+     * @param level   the current recursion level
+     * @param k       the accumulated reflection/refraction coefficient
      * @return the color at the intersection point
      */
-    private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
+    private Color calcColor(ShadingContext context, int level, Double3 k) {
         if (level == 1 || k.lowerThan(MIN_CALC_COLOR_K)) {
             return Color.BLACK;
         }
 
-
-        Color color = gp.geometry.getEmission();//
-        Vector v = ray.getDirection();//
-        Vector n = gp.geometry.getNormal(gp.point);//
-        Material material = gp.geometry.getMaterial();//
-
+        Color color = context.emission;
         // check that ray is not parallel to geometry
-        double nv = alignZero(n.dotProduct(v));//
-        if (Util.isZero(nv)) {//
-            return color;//
+        if (Util.isZero(context.nv)) {
+            return color;
         }
 
-        color = color.add(calcLocalEffects(gp, ray, k));//?
+        color = color.add(calcLocalEffects(context, k));
         return 1 == level ? color :
-                color.add(calcGlobalEffectGD(gp, material, n, v, level, k));//
+                color.add(calcGlobalEffectGD(context, level, k));
     }
 
     /**
      * Calculates the local lighting effects at a given intersection point.
+     * The contributions are summed in a color accumulator and the reflection vectors are calculated
+     * in a scratch vector, both reused by the thread, so only the light direction, the light intensity
+     * and the transparency are allocated per light.
      *
-     * @param gp  the intersection point
-     * @param ray the ray that intersected the geometry
-     * @param k   the accumulated reflection/refraction coefficient
+     * @param context the shading values of the intersection point
+     * @param k       the accumulated reflection/refraction coefficient
      * @return the color at the intersection point due to local effects
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        double nv = alignZero(n.dotProduct(v));
-//        if (Util.isZero(nv)) {
-//            return Color.BLACK;
-//        }
-
-        Material material = gp.geometry.getMaterial();
-        Color color = gp.geometry.getEmission();
-
-        for (LightSource lightSource : scene.lights) {
-            Vector l = lightSource.getL(gp.point).normalize();
-            double ln = alignZero(l.dotProduct(n));
-            double sign = ln > 0 ? 1 : -1;
-
-            if (sign * nv > 0) {
-                Double3 ktr = transparency(gp, lightSource, l, n);
-                if (ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
-                    continue;
-                }
-
-                Color lightIntensity = lightSource.getIntensity(gp.point).scale(ktr);
-                color = color.add(
-                        calcDiffusive(material.kd, l, n, lightIntensity),
-                        calcSpecular(material.ks, l, n, v, material.shininess, lightIntensity)
-                );
+    protected Color calcLocalEffects(ShadingContext context, Double3 k) {
+        ColorAccumulator color = localColor.get().reset().add(context.emission);
+        MutableVector r = reflected.get();
+
+        if (lightSamples == 0) {
+            for (LightSource lightSource : scene.getLights(context.point)) {
+                calcLightEffect(color, context, lightSource, 1, k, r);
+            }
+            return color.toColor();
+        }
+
+        LightDistribution lights = scene.getLightDistribution(context.point);
+        for (LightSource lightSource : lights.getUnsampled()) {
+            calcLightEffect(color, context, lightSource, 1, k, r);
+        }
+        if (lights.size() <= lightSamples) {
+            for (int i = 0; i < lights.size(); ++i) {
+                calcLightEffect(color, context, lights.get(i), 1, k, r);
+            }
+        } else {
+            for (int s = 0; s < lightSamples; ++s) {
+                int i = lights.sample(SampleRandom.nextDouble());
+                calcLightEffect(color, context, lights.get(i), 1 / (lightSamples * lights.pdf(i)), k, r);
+            }
+        }
+        return color.toColor();
+    }
+
+    /**
+     * Adds the diffusive and specular effects of a light at a given intersection point.
+     *
+     * @param color       the accumulated color
+     * @param context     the shading values of the intersection point
+     * @param lightSource the light source
+     * @param weight      the weight of the light (the reciprocal of its expected amount of samples)
+     * @param k           the accumulated reflection/refraction coefficient
+     * @param r           scratch vector for the reflection of the light direction
+     */
+    private void calcLightEffect(ColorAccumulator color, ShadingContext context, LightSource lightSource,
+                                 double weight, Double3 k, MutableVector r) {
+        Vector n = context.n;
+        Vector l = lightSource.getL(context.point);
+        double ln = alignZero(l.dotProduct(n));
+        double sign = ln > 0 ? 1 : -1;
+
+        if (sign * context.nv > 0) {
+            Double3 ktr = transparency(context.gp, lightSource, l, n);
+            if (ktr.productLowerThan(k, MIN_CALC_COLOR_K)) {
+                return;
+            }
+
+            Color lightIntensity = lightSource.getIntensity(context.point);
+            if (weight != 1) {
+                lightIntensity = lightIntensity.scale(weight);
             }
+            Material material = context.material;
+            calcDiffusive(color, material.kd, ln, lightIntensity, ktr);
+            calcSpecular(color, material.ks, r.set(l).reflect(n).normalize(), context.v, material.shininess,
+                    lightIntensity, ktr);
         }
-        return color;
     }
 
     /**
@@ -129,15 +284,93 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return the transparency coefficient
      */
     private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n) {
-        Vector lightDirection = l.scale(-1); // from point to light source
+        if (lightSource instanceof AreaLight areaLight) {
+            return areaTransparency(gp, areaLight, n);
+        }
+        return transparency(gp, lightSource, l.scale(-1), lightSource.getDistance(gp.point), n);
+    }
+
+    /**
+     * Calculates the transparency (shadow attenuation) for a given point and an area light - by rays
+     * towards the center and the corners of the light, and only if they disagree (penumbra) by a beam
+     * of rays towards the whole light area as well.
+     *
+     * @param gp        the intersection point
+     * @param areaLight the light source
+     * @param n         the normal at the intersection point
+     * @return the average transparency coefficient of the rays
+     */
+    private Double3 areaTransparency(GeoPoint gp, AreaLight areaLight, Vector n) {
+        Double3 first = transparency(gp, areaLight, areaLight.getSamplePoint(gp.point, 0.5, 0.5), n);
+        Double3 sum = first;
+        boolean penumbra = false;
+        for (int corner = 0; corner < 4; ++corner) {
+            Double3 ktr = transparency(gp, areaLight, areaLight.getSamplePoint(gp.point, corner & 1, corner >> 1), n);
+            penumbra = penumbra || !ktr.equals(first);
+            sum = sum.add(ktr);
+        }
+        if (!penumbra) {
+            return first;
+        }
+
+        double[] us = new double[shadowBeamSize];
+        double[] vs = new double[shadowBeamSize];
+        sampler.generate(shadowBeamSize, us, vs);
+        for (int i = 0; i < shadowBeamSize; ++i) {
+            sum = sum.add(transparency(gp, areaLight, areaLight.getSamplePoint(gp.point, us[i], vs[i]), n));
+        }
+        return sum.reduce(5 + shadowBeamSize);
+    }
+
+    /**
+     * Calculates the transparency (shadow attenuation) between a given point and a point of a light.
+     *
+     * @param gp          the intersection point
+     * @param lightSource the light source
+     * @param target      the point of the light
+     * @param n           the normal at the intersection point
+     * @return the transparency coefficient
+     */
+    private Double3 transparency(GeoPoint gp, LightSource lightSource, Point target, Vector n) {
+        Vector lightDirection = target.subtract(gp.point);
+        return transparency(gp, lightSource, lightDirection, lightDirection.length(), n);
+    }
+
+    /**
+     * Calculates the transparency (shadow attenuation) of the objects along a shadow ray.
+     * The last opaque occluder found towards the light by the current thread is tested first,
+     * since neighbouring points are usually shadowed by the same object. The occluder is the
+     * intersectable which found the hit, so a clipped geometry is tested with its box and a
+     * triangle of a mesh is tested alone (not with the other, maybe transparent, triangles).
+     *
+     * @param gp             the intersection point
+     * @param lightSource    the light source
+     * @param lightDirection the direction from the point to the light
+     * @param distance       the distance to the light
+     * @param n              the normal at the intersection point
+     * @return the transparency coefficient
+     */
+    private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector lightDirection, double distance,
+                                 Vector n) {
         Ray lightRay = new Ray(gp.point, lightDirection, n);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay, lightSource.getDistance(gp.point));
+        Map<LightSource, Intersectable> cache = occluders.get();
+        Intersectable occluder = cache.get(lightSource);
+        if (occluder != null && occluder.hasIntersection(lightRay, distance)) {
+            return Double3.ZERO;
+        }
+
+        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay, distance);
         if (intersections == null) {
             return Double3.ONE;
         }
         Double3 ktr = Double3.ONE;
         for (GeoPoint geopoint : intersections) {
-            ktr = ktr.product(geopoint.geometry.getMaterial().kt);
+            Double3 kt = geopoint.geometry.getMaterial().kt;
+            if (kt.lowerThan(MIN_CALC_COLOR_K)) {
+                cache.put(lightSource, geopoint.intersectable);
+                return Double3.ZERO;
+            }
+            ktr = ktr.product(kt);
             if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
                 return Double3.ZERO;
             }
@@ -148,16 +381,15 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * Calculates the global lighting effects (reflection and refraction) at a given intersection point.
      *
-     * @param gp    the intersection point
-     * @param ray   the ray that intersected the geometry
-     * @param level the current recursion level
-     * @param k     the accumulated reflection/refraction coefficient
+     * @param context the shading values of the intersection point
+     * @param level   the current recursion level
+     * @param k       the accumulated reflection/refraction coefficient
      * @return the color at the intersection point due to global effects
      */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Material material = gp.geometry.getMaterial();
-        return calcGlobalEffect(constructRefractedRay(gp, ray), material.kt, level, k)
-                .add(calcGlobalEffect(constructReflectedRay(gp, ray), material.kr, level, k));
+    private Color calcGlobalEffects(ShadingContext context, int level, Double3 k) {
+        Material material = context.material;
+        return calcGlobalEffect(constructRefractedRay(context), material.kt, level, k)
+                .add(calcGlobalEffect(constructReflectedRay(context), material.kr, level, k));
     }
 
     /**
@@ -171,6 +403,14 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k) {
         Double3 kkx = k.product(kx);
+        double survival = survival(kkx);
+        if (survival == 0) {
+            return Color.BLACK;
+        }
+        if (survival < 1) { // the surviving path is reweighted
+            kkx = kkx.reduce(survival);
+            kx = kx.reduce(survival);
+        }
         if (kkx.lowerThan(MIN_CALC_COLOR_K)) {
             return Color.BLACK;
         }
@@ -179,88 +419,79 @@ public class SimpleRayTracer extends RayTracerBase {
 //                calcColor(gp, ray, level - 1, kkx)).scale(kx);
         if (gp == null)
             return scene.background.scale(kx);
-        return Util.isZero(gp.geometry.getNormal(gp.point).dotProduct(ray.getDirection())) ? Color.BLACK
-                : calcColor(gp, ray, level - 1, kkx).scale(kx);
+        ShadingContext context = new ShadingContext(gp, ray);
+        return Util.isZero(context.nv) ? Color.BLACK
+                : calcColor(context, level - 1, kkx).scale(kx);
     }
 
 
     /**
-     * Calculates the diffusive component of the color.
+     * Adds the diffusive component of the color.
      *
+     * @param color          the accumulated color
      * @param kd             the diffusive coefficient
-     * @param l              the direction from the point to the light source
-     * @param n              the normal at the intersection point
+     * @param ln             the cosine between the light direction and the normal
      * @param lightIntensity the intensity of the light
-     * @return the diffusive color component
+     * @param ktr            the transparency of the shadow ray
      */
-    private Color calcDiffusive(Double3 kd, Vector l, Vector n, Color lightIntensity) {
-        double ln = alignZero(l.dotProduct(n));
-        if (ln < 0) ln = -ln;
-        return lightIntensity.scale(kd).scale(ln);
+    private void calcDiffusive(ColorAccumulator color, Double3 kd, double ln, Color lightIntensity, Double3 ktr) {
+        color.add(lightIntensity, ktr, kd, ln < 0 ? -ln : ln);
     }
 
     /**
-     * Calculates the specular component of the color.
+     * Adds the specular component of the color.
      *
+     * @param color          the accumulated color
      * @param ks             the specular coefficient
-     * @param l              the direction from the point to the light source
-     * @param n              the normal at the intersection point
+     * @param r              the reflection of the light direction by the normal
      * @param v              the direction of the view
      * @param shininess      the shininess exponent
      * @param lightIntensity the intensity of the light
-     * @return the specular color component
+     * @param ktr            the transparency of the shadow ray
      */
-    private Color calcSpecular(Double3 ks, Vector l, Vector n, Vector v, double shininess, Color lightIntensity) {
-        Vector r = l.subtract(n.scale(2 * l.dotProduct(n))).normalize();
-        double vr = alignZero(v.dotProduct(r));
-        if (vr >= 0) {
-            return Color.BLACK;
+    private void calcSpecular(ColorAccumulator color, Double3 ks, MutableVector r, Vector v, double shininess,
+                              Color lightIntensity, Double3 ktr) {
+        double vr = alignZero(r.dotProduct(v));
+        if (vr < 0) {
+            color.add(lightIntensity, ktr, ks, Math.pow(-vr, shininess));
         }
-        return lightIntensity.scale(ks).scale(Math.pow(-vr, shininess));
     }
 
     /**
      * Constructs a reflection ray from a given intersection point.
      *
-     * @param gp  the intersection point
-     * @param ray the incident ray
+     * @param context the shading values of the intersection point
      * @return the reflection ray
      */
-    private Ray constructReflectedRay(GeoPoint gp, Ray ray) {
-        Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        Vector r = v.subtract(n.scale(2 * v.dotProduct(n)));
-        return new Ray(gp.point, n, r);////////////////////////////
+    private Ray constructReflectedRay(ShadingContext context) {
+        return new Ray(context.point, context.reflected(), context.n);
     }
 
     /**
      * Constructs a refraction ray from a given intersection point.
      *
-     * @param gp  the intersection point
-     * @param ray the incident ray
+     * @param context the shading values of the intersection point
      * @return the refraction ray
      */
-    private Ray constructRefractedRay(GeoPoint gp, Ray ray) {
-        return new Ray(gp.point, ray.getDirection(), gp.geometry.getNormal(gp.point));
+    private Ray constructRefractedRay(ShadingContext context) {
+        return new Ray(context.point, context.v, context.n);
     }
 
     /**
      * Constructs reflected rays based on the given parameters.
      *
-     * @param gp the geometric point
-     * @param v  the vector
-     * @param n  the normal vector
-     * @param kG the constant factor
+     * @param context the shading values of the intersection point
+     * @param kG      the constant factor
      * @return a list of reflected rays
      */
-    private List<Ray> constructReflectedRays(GeoPoint gp, Vector v, Vector n, double kG) {
-        Vector r1 = v.subtract(n.scale(2 * v.dotProduct(n)));
-        Ray reflectedRay = new Ray(gp.point, r1, n); //constructReflectedRay(geoPoint, v, n);
+    private List<Ray> constructReflectedRays(ShadingContext context, double kG) {
+        Vector n = context.n;
+        Ray reflectedRay = constructReflectedRay(context);
         double res = reflectedRay.getDirection().dotProduct(n);
         if (kG == 0) {
             return List.of(reflectedRay);
         } else {
-            return new TargetView(reflectedRay, kG).constructRayBeamGrid().stream()
+            return new TargetView(reflectedRay, kG).constructRayBeam(sampler, beamSize).stream()
                     .filter(r -> r.getDirection().dotProduct(n) * res > 0).toList();
 
         }
@@ -269,19 +500,18 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * Construct refracted rays based on the given parameters.
      *
-     * @param gp the geometric point
-     * @param v  the vector v
-     * @param n  the normal vector
-     * @param kB the value of k
+     * @param context the shading values of the intersection point
+     * @param kB      the value of k
      * @return the list of refracted rays
      */
-    private List<Ray> constructRefractedRays(GeoPoint gp, Vector v, Vector n, double kB) {
-        Ray reflectedRay = new Ray(gp.point, v, n);
+    private List<Ray> constructRefractedRays(ShadingContext context, double kB) {
+        Vector n = context.n;
+        Ray reflectedRay = constructRefractedRay(context);
         double res = reflectedRay.getDirection().dotProduct(n);
         if (kB == 0) {
             return List.of(reflectedRay);
         } else {
-            return new TargetView(reflectedRay, kB).constructRayBeamGrid().stream()
+            return new TargetView(reflectedRay, kB).constructRayBeam(sampler, beamSize).stream()
                     .filter(r -> r.getDirection().dotProduct(n) * res > 0).toList();
         }
     }
@@ -306,10 +536,33 @@ private Color calcRayBeamColor(int level, Double3 k, Double3 kx, List<Ray> rays)
     return color.scale(1.0 / rays.size());
 }
 
-private Color calcGlobalEffectGD(GeoPoint geoPoint, Material material, Vector n, Vector v, int level, Double3 k) {
+private Color calcGlobalEffectGD(ShadingContext context, int level, Double3 k) {
+    Material material = context.material;
     Double3 kR = material.kr;
-    Double3 kT = material.kt;
-    return calcRayBeamColor(level, k, kR, constructReflectedRays(geoPoint, v, n, material.glossiness))
-            .add(calcRayBeamColor(level, k, kT, constructRefractedRays(geoPoint, v, n, material.diffuseness)));
+    return calcRayBeamColor(level, k, kR, constructReflectedRays(context, material.glossiness))
+            .add(calcRefractedBeamColor(context, level, k));
+}
+
+/**
+ * Calculates the color of the refraction beam, by the irradiance cache for the blurry beams of the
+ * camera rays' hits.
+ *
+ * @param context the shading values of the intersection point
+ * @param level   the current recursion level
+ * @param k       the accumulated reflection/refraction coefficient
+ * @return the color of the refraction beam
+ */
+private Color calcRefractedBeamColor(ShadingContext context, int level, Double3 k) {
+    Material material = context.material;
+    if (irradianceCache == null || material.diffuseness == 0 || level != MAX_CALC_COLOR_LEVEL
+            || material.kt.lowerThan(MIN_CALC_COLOR_K)) {
+        return calcRayBeamColor(level, k, material.kt, constructRefractedRays(context, material.diffuseness));
+    }
+    Color color = irradianceCache.lookup(context);
+    if (color == null) {
+        color = calcRayBeamColor(level, k, material.kt, constructRefractedRays(context, material.diffuseness));
+        irradianceCache.insert(context, color);
+    }
+    return color;
 }
 }
\ No newline at end of file
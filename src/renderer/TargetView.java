@@ -2,9 +2,8 @@ package renderer;
 
 import primitives.*;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import static primitives.Util.isZero;
 
@@ -12,7 +11,6 @@ import static primitives.Util.isZero;
  * TargetView class is responsible for generating rays targeted at the View Plane (VP) from a given location and direction.
  */
 public class TargetView {
-    private final static int DENSITY = 3;  // Density of the grid for ray construction
     Point location;  // The location of the camera or origin point
     Vector vTo;  // The direction vector towards the view plane
     Vector vRight;  // The right vector perpendicular to the direction vector
@@ -77,22 +75,21 @@ public class TargetView {
 
 
     /**
-     * Constructs a grid of rays around the central ray
+     * Constructs a beam of rays around the central ray through sample points of the view plane
      *
-     * @return List of Ray objects representing the grid of rays
+     * @param sampler the generator of the sample points
+     * @param count   amount of the rays
+     * @return List of Ray objects representing the beam of rays
      */
-    public List<Ray> constructRayBeamGrid() {
-        Random rand = new Random();
-        List<Ray> rays = new LinkedList<>();
+    public List<Ray> constructRayBeam(Sampler sampler, int count) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        sampler.generate(count, xs, ys);
 
-        for (int i = 0; i < DENSITY; i++) {
-            for (int j = 0; j < DENSITY; j++) {
-                rays.add(constructRay(DENSITY, DENSITY, rand.nextDouble() + j - 0.5,
-                        rand.nextDouble() + i - 0.5));
-            }
+        List<Ray> rays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rays.add(constructRay(1, 1, xs[i] - 0.5, ys[i] - 0.5));
         }
-
-
         return rays;
     }
 }
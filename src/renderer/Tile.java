@@ -0,0 +1,20 @@
+package renderer;
+
+/**
+ * Immutable rectangular block of pixels of the image - the unit of work of tiled rendering
+ *
+ * @param x      X axis index of the left column of the tile
+ * @param y      Y axis index of the top row of the tile
+ * @param width  amount of columns of the tile
+ * @param height amount of rows of the tile
+ */
+public record Tile(int x, int y, int width, int height) {
+    /**
+     * Amount of the pixels of the tile
+     *
+     * @return the amount of pixels
+     */
+    public int pixels() {
+        return width * height;
+    }
+}
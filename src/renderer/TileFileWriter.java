@@ -0,0 +1,123 @@
+package renderer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tile listener which streams the rendered tiles into a raw image file.<br>
+ * The file is created in its full size at once (black), and every tile is written
+ * into its place by positional writes as soon as it is rendered, so the file is a
+ * preview of the render in progress and the image does not have to be kept in
+ * memory.
+ */
+public class TileFileWriter implements TileListener, Closeable {
+    /**
+     * Format of the raw image file
+     */
+    public enum Format {
+        /** Binary PPM (P6) - 8-bit RGB, every component bigger than 255 is set to 255 */
+        PPM(3),
+        /** PFM (PF) - 32-bit float RGB, the colors are divided by 255 (white is 1) */
+        PFM(12);
+
+        /** Amount of bytes per pixel */
+        private final int pixelBytes;
+
+        /**
+         * Constructor of the format
+         *
+         * @param pixelBytes amount of bytes per pixel
+         */
+        Format(int pixelBytes) {
+            this.pixelBytes = pixelBytes;
+        }
+    }
+
+    /**
+     * The file
+     */
+    private final FileChannel channel;
+    /**
+     * Format of the file
+     */
+    private final Format format;
+    /**
+     * Amount of pixels by width
+     */
+    private final int width;
+    /**
+     * Amount of pixels by height
+     */
+    private final int height;
+    /**
+     * Length of the file header - position of the pixels data
+     */
+    private final long headerLength;
+
+    /**
+     * Creates the image file
+     *
+     * @param path   the file
+     * @param width  amount of pixels by width
+     * @param height amount of pixels by height
+     * @param format format of the file
+     * @throws IOException in case of a failure in creating the file
+     */
+    public TileFileWriter(Path path, int width, int height, Format format) throws IOException {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Image dimensions must be positive");
+        this.width = width;
+        this.height = height;
+        this.format = format;
+        // PFM with a negative scale is little endian
+        String header = format == Format.PPM //
+                ? "P6\n" + width + " " + height + "\n255\n"
+                : "PF\n" + width + " " + height + "\n-1.0\n";
+        byte[] headerBytes = header.getBytes(StandardCharsets.US_ASCII);
+        headerLength = headerBytes.length;
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.write(ByteBuffer.wrap(headerBytes), 0);
+        // the last byte gives the file its full size, the rest of the pixels are read as zeros (black)
+        channel.write(ByteBuffer.allocate(1), headerLength + (long) width * height * format.pixelBytes - 1);
+    }
+
+    @Override
+    public void tileRendered(Tile tile, float[] rgb) {
+        ByteBuffer row = ByteBuffer.allocate(tile.width() * format.pixelBytes).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int r = 0, i = 0; r < tile.height(); ++r) {
+                row.clear();
+                for (int c = 0; c < tile.width(); ++c)
+                    for (int k = 0; k < 3; ++k, ++i)
+                        if (format == Format.PPM)
+                            row.put((byte) Framebuffer.toByte(rgb[i]));
+                        else
+                            row.putFloat(rgb[i] / 255f);
+                row.flip();
+
+                int y = tile.y() + r;
+                // PFM rows are stored from the bottom
+                long line = format == Format.PPM ? y : height - 1 - y;
+                long position = headerLength + (line * width + tile.x()) * format.pixelBytes;
+                while (row.hasRemaining())
+                    position += channel.write(row, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failure in writing tile " + tile, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,19 @@
+package renderer;
+
+/**
+ * Receiver of the tiles of the image as soon as each of them is rendered.<br>
+ * The listener is called from the rendering threads concurrently, so an
+ * implementation must be thread-safe.
+ */
+@FunctionalInterface
+public interface TileListener {
+    /**
+     * Accepts a rendered tile
+     *
+     * @param tile the tile
+     * @param rgb  the colors of the tile pixels (unclamped, in the scale of {@link primitives.Color}),
+     *             row by row from the top, red, green and blue per pixel. The array is reused by the
+     *             rendering thread after the call, so it must not be kept
+     */
+    void tileRendered(Tile tile, float[] rgb);
+}
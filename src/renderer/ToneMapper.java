@@ -0,0 +1,110 @@
+package renderer;
+
+import java.util.stream.IntStream;
+
+/**
+ * Tone mapper converts a high dynamic range framebuffer into the printed range
+ * [0, 255] of the colors. The colors are scaled by the exposure and then
+ * compressed by the operator, each component separately. The pass over the
+ * image runs in parallel by rows.
+ */
+public class ToneMapper {
+    /**
+     * Tone mapping operator of a color component, where 1 is the printed white
+     */
+    public enum Operator {
+        /** Linear - every component bigger than 1 is clamped (as {@link primitives.Color#getColor()}) */
+        CLAMP {
+            @Override
+            double map(double x) {
+                return Math.min(1, x);
+            }
+        },
+        /** Reinhard - x / (1 + x) */
+        REINHARD {
+            @Override
+            double map(double x) {
+                return x / (1 + x);
+            }
+        },
+        /** ACES filmic curve (Narkowicz fit) */
+        ACES {
+            @Override
+            double map(double x) {
+                return Math.min(1, x * (2.51 * x + 0.03) / (x * (2.43 * x + 0.59) + 0.14));
+            }
+        };
+
+        /**
+         * Maps a non-negative component
+         *
+         * @param x the component
+         * @return the mapped component in range [0, 1]
+         */
+        abstract double map(double x);
+    }
+
+    /**
+     * The printed white of the framebuffer colors
+     */
+    private static final double WHITE = 255;
+
+    /**
+     * The operator
+     */
+    private final Operator operator;
+    /**
+     * Linear scale of the colors - 2 in the power of the exposure
+     */
+    private double scale = 1;
+
+    /**
+     * Constructs tone mapper with zero exposure
+     *
+     * @param operator the operator
+     */
+    public ToneMapper(Operator operator) {
+        if (operator == null)
+            throw new IllegalArgumentException("operator cannot be null");
+        this.operator = operator;
+    }
+
+    /**
+     * Setter of the exposure
+     *
+     * @param stops exposure in stops (each stop doubles the light), may be negative
+     * @return the tone mapper itself
+     */
+    public ToneMapper setExposure(double stops) {
+        scale = Math.pow(2, stops);
+        return this;
+    }
+
+    /**
+     * Maps a color component
+     *
+     * @param value the component in the framebuffer scale
+     * @return the mapped component in range [0, 255]
+     */
+    public float map(float value) {
+        return value <= 0 ? 0 : (float) (operator.map(value * scale / WHITE) * WHITE);
+    }
+
+    /**
+     * Tone maps the framebuffer into a new framebuffer (the source is not changed)
+     *
+     * @param hdr the high dynamic range framebuffer
+     * @return the tone mapped framebuffer
+     */
+    public Framebuffer apply(Framebuffer hdr) {
+        int width = hdr.getWidth();
+        Framebuffer result = new Framebuffer(width, hdr.getHeight());
+        float[] source = hdr.getData();
+        float[] target = result.getData();
+        IntStream.range(0, hdr.getHeight()).parallel().forEach(y -> {
+            for (int i = y * width * 3, end = i + width * 3; i < end; ++i)
+                target[i] = map(source[i]);
+        });
+        return result;
+    }
+}
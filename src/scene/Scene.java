@@ -37,6 +37,20 @@ public class Scene {
     public List<LightSource> lights = new LinkedList<>();
 
 
+    /**
+     * Index of the lights by their influence radius, null when the lights are not culled
+     */
+    private LightIndex lightIndex = null;
+    /**
+     * Distribution of all the lights for choosing them randomly, created on its first use
+     */
+    private volatile LightDistribution lightDistribution = null;
+
+    /**
+     * Off-heap memory of the scene's geometry data, null when the geometries are on the heap
+     */
+    private OffHeapArena arena = null;
+
     /**
      * Constructor that accepts the name of the scene
      *
@@ -72,6 +86,112 @@ public class Scene {
         return this;
     }
 
+    /**
+     * Clips the scene's infinite geometries (planes, tubes) to the box of its finite geometries
+     * extended by a margin, so that the hierarchy bounds the whole scene. The parts of the infinite
+     * geometries out of the box are not rendered, so the margin should reach the horizon of the view.
+     * It must be called <b><u>after</u></b> creating the 3D model and before {@link #setBVH()}.
+     *
+     * @param margin the extension of the box at each side
+     * @return scene object itself
+     */
+    public Scene setClippedInfinites(double margin) {
+        geometries.clipInfinites(margin);
+        return this;
+    }
+
+    /**
+     * Replaces the scene's polygons (quads, n-gons) by fans of triangles, so that the following
+     * {@link #setFloatPrecision()} or {@link #setOffHeap()} packs them into the triangle meshes too.
+     * It must be called <b><u>after</u></b> creating the 3D model.
+     *
+     * @return scene object itself
+     */
+    public Scene setTriangulatedPolygons() {
+        geometries.triangulatePolygons();
+        return this;
+    }
+
+    /**
+     * Switches the scene's triangles to the single precision "fast mode" - float vertex buffers,
+     * float bounds hierarchy and float intersection calculations. The triangle objects are released
+     * (the mesh keeps their normals and an index of their distinct emissions and materials), so the
+     * triangles take a small fraction of their former memory.
+     * It must be called <b><u>after</u></b> creating the 3D model, and better before {@link #setBVH()}
+     * so that the triangles are packed together.
+     *
+     * @return scene object itself
+     */
+    public Scene setFloatPrecision() {
+        geometries.packTriangles();
+        return this;
+    }
+
+    /**
+     * Moves the scene's triangles and their hierarchy into off-heap memory owned by the scene, in the
+     * single precision format of {@link #setFloatPrecision()}. The triangle objects are released, so
+     * the heap usage does not depend on the amount of the triangles.
+     * It must be called <b><u>after</u></b> creating the 3D model, and better before {@link #setBVH()}.
+     *
+     * @return scene object itself
+     */
+    public Scene setOffHeap() {
+        if (arena == null)
+            arena = new OffHeapArena();
+        geometries.packTriangles(arena);
+        return this;
+    }
+
+    /**
+     * Amount of off-heap memory used by the scene
+     *
+     * @return the off-heap memory size in bytes
+     */
+    public long getOffHeapBytes() {
+        return arena == null ? 0 : arena.allocatedBytes();
+    }
+
+    /**
+     * Turns on culling of the lights by their influence radius - the distance where the attenuation
+     * of a light weakens it below a threshold. A lit point is shaded only by the lights whose
+     * influence reaches it (and by the lights which do not weaken, e.g. directional lights).
+     * It must be called <b><u>after</u></b> adding the lights to the scene.
+     *
+     * @param threshold the intensity (of the strongest color component, e.g. 1 of 255) below which a
+     *                  light is negligible
+     * @return the scene itself
+     */
+    public Scene setLightCulling(double threshold) {
+        lightIndex = new LightIndex(lights, threshold);
+        return this;
+    }
+
+    /**
+     * The lights which may be significant at a point - all the lights, or the lights reaching the
+     * point if the lights are culled
+     *
+     * @param point the lit point
+     * @return the lights
+     */
+    public List<LightSource> getLights(Point point) {
+        return lightIndex == null ? lights : lightIndex.getLights(point);
+    }
+
+    /**
+     * The distribution for choosing randomly among the lights which may be significant at a point (see
+     * {@link #getLights(Point)}). Without light culling the distribution of all the lights is created on
+     * its first use, so it must be used <b><u>after</u></b> adding the lights to the scene.
+     *
+     * @param point the lit point
+     * @return the distribution of the lights
+     */
+    public LightDistribution getLightDistribution(Point point) {
+        if (lightIndex != null) return lightIndex.getDistribution(point);
+        LightDistribution distribution = lightDistribution;
+        if (distribution == null) lightDistribution = distribution = new LightDistribution(lights);
+        return distribution;
+    }
+
     /**
      * Sets the background color of the scene
      *
@@ -0,0 +1,82 @@
+package generators;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import renderer.SimpleRayTracer;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link SceneGenerator}
+ */
+class SceneGeneratorTest {
+
+    /**
+     * Traces a grid of rays from the camera position through the scene
+     *
+     * @param scene the scene
+     * @return the colors of the rays
+     */
+    private Color[] trace(Scene scene) {
+        SimpleRayTracer tracer = new SimpleRayTracer(scene);
+        Point eye = new Point(0, 0, SceneGenerator.SIZE * 10);
+        Color[] colors = new Color[25];
+        for (int i = 0; i < 5; ++i)
+            for (int j = 0; j < 5; ++j)
+                colors[i * 5 + j] = tracer.traceRay(new Ray(eye,
+                        new Point(40 * i - 80, 40 * j - 80, 0).subtract(eye)));
+        return colors;
+    }
+
+    /**
+     * Test method for the determinism of the generated scenes.
+     */
+    @Test
+    void testSeed() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same seed generates the same scene
+        assertArrayEquals(trace(SceneGenerator.randomSpheres(200, 7).setBVH()),
+                trace(SceneGenerator.randomSpheres(200, 7).setBVH()), "Same seed should give the same scene");
+        assertArrayEquals(trace(SceneGenerator.mixed(200, 7).setBVH()),
+                trace(SceneGenerator.mixed(200, 7).setBVH()), "Same seed should give the same scene");
+        // TC02: Another seed generates another scene
+        assertFalse(java.util.Arrays.equals(trace(SceneGenerator.randomSpheres(200, 7).setBVH()),
+                trace(SceneGenerator.randomSpheres(200, 8).setBVH())), "Another seed should give another scene");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Packed triangles give the same scene as the triangle objects (up to the float precision)
+        Scene triangles = SceneGenerator.triangleSoup(2000, 3, false).setBVH();
+        Scene packed = SceneGenerator.triangleSoup(2000, 3, true).setBVH();
+        Point eye = new Point(0, 0, SceneGenerator.SIZE * 10);
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(eye, new Point(20 * i - 90, 20 * j - 90, 0).subtract(eye));
+                var expected = triangles.geometries.findClosestIntersection(ray);
+                var actual = packed.geometries.findClosestIntersection(ray);
+                if (expected == null) assertNull(actual, "Packed soup should look like the triangles");
+                else assertEquals(0, expected.point.distance(actual.point), 1e-3,
+                        "Packed soup should look like the triangles");
+            }
+        // TC12: Empty scenes are not generated
+        assertThrows(IllegalArgumentException.class, () -> SceneGenerator.randomSpheres(0, 1),
+                "Empty scene should be rejected");
+    }
+
+    /**
+     * Test method for {@link SceneGenerator#cornellBox(SceneGenerator.CornellBox)}.
+     */
+    @Test
+    void testCornellBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every ray from the camera hits the box in every variant
+        for (SceneGenerator.CornellBox variant : SceneGenerator.CornellBox.values()) {
+            Scene scene = SceneGenerator.cornellBox(variant).setBVH();
+            Point eye = new Point(0, 0, SceneGenerator.SIZE * 10);
+            for (int i = 0; i < 5; ++i) {
+                Ray ray = new Ray(eye, new Point(40 * i - 80, 50, 0).subtract(eye));
+                assertNotNull(scene.geometries.findClosestIntersection(ray), "Ray should hit the box " + variant);
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@ package geometries;
 import org.junit.jupiter.api.Test;
 import primitives.*;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class CylinderTest {
@@ -53,4 +55,48 @@ class CylinderTest {
         assertEquals(new Vector(0, 0, 1), normalCenterTop, "TC07: wrong normal to cylinder center top");
 
     }
+
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(Ray)}.
+     */
+    @Test
+    void findIntersections() {
+        Cylinder cylinder = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the surface twice (2 points)
+        var result = cylinder.findIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0)));
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)), result, "Wrong surface intersections");
+        // TC02: Ray crosses both bases (2 points)
+        result = cylinder.findIntersections(new Ray(new Point(0.5, 0, 3), new Vector(0, 0, -1)));
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(0.5, 0, 0)), result, "Wrong bases intersections");
+        // TC03: Ray crosses a base and the surface (2 points)
+        result = cylinder.findIntersections(new Ray(new Point(0, 0, 3), new Vector(1, 0, -2)));
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(1, 0, 1)), result, "Wrong intersections");
+        // TC04: Ray starts inside (1 point)
+        result = cylinder.findIntersections(new Ray(new Point(0, 0, 1), new Vector(1, 0, 0)));
+        assertEquals(List.of(new Point(1, 0, 1)), result, "Wrong intersection from inside");
+        // TC05: Ray misses the cylinder above it (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "Ray should miss the cylinder");
+        // TC06: Ray crosses the infinite tube only out of the height (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 5), new Vector(1, 0, 1))),
+                "Ray should miss the cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray parallel to the axis on the surface (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(1, 0, 3), new Vector(0, 0, -1))),
+                "Ray on the surface should not intersect");
+        // TC12: Ray tangent to the surface (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 1, 1), new Vector(1, 0, 0))),
+                "Tangent ray should not intersect");
+        // TC13: Ray in the plane of a base (0 points)
+        assertNull(cylinder.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))),
+                "Ray in the base plane should not intersect");
+        // TC14: Intersections beyond the distance are ignored
+        Ray ray = new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0));
+        assertEquals(1, cylinder.findGeoIntersections(ray, 2).size(), "Only the near point is in the distance");
+        assertFalse(cylinder.hasIntersection(ray, 0.5), "The cylinder is beyond the distance");
+        assertEquals(new Point(-1, 0, 1), cylinder.findClosestIntersection(ray, 5).point, "Wrong closest point");
     }
+}
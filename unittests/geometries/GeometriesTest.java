@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.*;
 import primitives.Ray;
 
+import java.util.LinkedList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,4 +48,73 @@ class GeometriesTest {
         assertEquals(4, result.size(), "There should be four intersections");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testInfinites() {
+        // the bounding regions are a global switch - restored for the following tests
+        boolean cbr = Intersectable.cbr;
+        Intersectable.setCbr();
+        try {
+            Plane plane = new Plane(new Point(0, 0, -1), new Vector(0, 0, 1));
+            List<Intersectable> spheres = new LinkedList<>();
+            for (int i = 0; i < 8; ++i)
+                spheres.add(new Sphere(1d, new Point(4 * i, 0, 0)));
+            Geometries geos = new Geometries(spheres);
+            geos.add(plane);
+            geos.setBVH();
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Ray through the spheres and the plane (3 points)
+            Ray ray = new Ray(new Point(8, 0, 5), new Vector(0, 0, -1));
+            assertEquals(3, geos.findIntersections(ray).size(), "Wrong number of intersections");
+
+            // TC02: Ray missing the spheres hits the plane only (1 point)
+            ray = new Ray(new Point(8, 10, 5), new Vector(0, 0, -1));
+            assertEquals(1, geos.findIntersections(ray).size(), "Wrong number of intersections");
+
+            // TC03: Intersections beyond the distance are ignored, including the plane
+            ray = new Ray(new Point(8, 0, 5), new Vector(0, 0, -1));
+            assertEquals(new Point(8, 0, 1), geos.findClosestIntersection(ray).point, "Wrong closest point");
+            assertNull(geos.findGeoIntersections(ray, 3), "No intersection before the distance");
+            assertFalse(geos.hasIntersection(new Ray(new Point(8, 10, 5), new Vector(0, 0, -1)), 5),
+                    "The plane is beyond the distance");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: Clipped plane keeps its intersections inside the margin only
+            geos = new Geometries(spheres);
+            geos.add(plane);
+            geos.clipInfinites(10);
+            geos.setBVH();
+            assertEquals(3, geos.findIntersections(new Ray(new Point(8, 0, 5), new Vector(0, 0, -1))).size(),
+                    "Wrong number of intersections");
+            assertEquals(1, geos.findIntersections(new Ray(new Point(8, 10, 5), new Vector(0, 0, -1))).size(),
+                    "The plane inside the margin should be hit");
+            assertNull(geos.findIntersections(new Ray(new Point(8, 12, 5), new Vector(0, 0, -1))),
+                    "The plane out of the margin should be clipped");
+        } finally {
+            Intersectable.cbr = cbr;
+        }
+    }
+
+    @Test
+    void testBorder() {
+        Intersectable.Border box = new Intersectable.Border(0, 0, 0, 2, 2, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Oblique ray crossing the box
+        assertTrue(box.intersect(new Ray(new Point(-1, -1, -1), new Vector(1, 1, 1))), "The ray crosses the box");
+        // TC02: Oblique ray missing the box
+        assertFalse(box.intersect(new Ray(new Point(-1, 3, -1), new Vector(1, 1, 1))), "The ray misses the box");
+        // TC03: Ray going towards the negative axes
+        assertTrue(box.intersect(new Ray(new Point(3, 3, 3), new Vector(-1, -1, -1))), "The ray crosses the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Axis parallel ray inside the slabs
+        assertTrue(box.intersect(new Ray(new Point(1, 1, -1), new Vector(0, 0, 1))), "The ray crosses the box");
+        // TC12: Axis parallel ray out of a slab
+        assertFalse(box.intersect(new Ray(new Point(3, 1, -1), new Vector(0, 0, 1))), "The ray misses the box");
+        // TC13: Axis parallel ray on the plane of a slab side
+        assertTrue(box.intersect(new Ray(new Point(2, 1, -1), new Vector(0, 0, 1))), "The ray touches the box");
+        assertTrue(box.intersect(new Ray(new Point(0, 1, 3), new Vector(0, 0, -1))), "The ray touches the box");
+    }
+}
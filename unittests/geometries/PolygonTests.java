@@ -110,5 +110,50 @@ public class PolygonTests {
      */
     @Test
     void findIntersections() {
+        Polygon polygon = new Polygon(new Point(0, 0, 1), new Point(2, 0, 1), new Point(2, 2, 1), new Point(0, 2, 1));
+        Vector down = new Vector(0, 0, -1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the polygon (1 point)
+        var result = polygon.findIntersections(new Ray(new Point(1, 0.5, 3), down));
+        assertNotNull(result, "Ray should cross the polygon");
+        assertEquals(new Point(1, 0.5, 1), result.getFirst(), "Wrong intersection point");
+        // TC02: Ray crosses the plane out of the polygon, against an edge (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(3, 1, 3), down)), "Ray should miss the polygon");
+        // TC03: Ray crosses the plane out of the polygon, against a vertex (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(3, 3, 3), down)), "Ray should miss the polygon");
+        // TC04: Ray starts after the polygon (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(1, 1, 0), down)), "Ray should miss the polygon");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray crosses an edge (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(2, 1, 3), down)), "Edge is not an intersection");
+        // TC12: Ray crosses a vertex (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(2, 2, 3), down)), "Vertex is not an intersection");
+        // TC13: Ray crosses the continuation of an edge (0 points)
+        assertNull(polygon.findIntersections(new Ray(new Point(3, 0, 3), down)), "Ray should miss the polygon");
+        // TC14: Polygon beyond the distance (0 points)
+        assertNull(polygon.findGeoIntersections(new Ray(new Point(1, 1, 3), down), 2), "Polygon is too far");
+        assertFalse(polygon.hasIntersection(new Ray(new Point(1, 1, 3), down), 1.5), "Polygon is too far");
+        assertTrue(polygon.hasIntersection(new Ray(new Point(1, 1, 3), down), 2.5), "Polygon is near enough");
+    }
+
+    /**
+     * Test method for {@link Polygon#triangulate()}.
+     */
+    @Test
+    void testTriangulate() {
+        Polygon polygon = new Polygon(new Point(0, 0, 0), new Point(2, 0, 0), new Point(3, 1, 0),
+                new Point(2, 2, 0), new Point(0, 2, 0));
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A pentagon is split into 3 triangles covering it
+        var triangles = polygon.triangulate();
+        assertEquals(3, triangles.size(), "Wrong amount of triangles");
+        for (Point p : new Point[]{new Point(0.5, 0.2, 0), new Point(2.5, 1, 0), new Point(1, 1.8, 0)}) {
+            Ray ray = new Ray(p.add(new Vector(0, 0, 1)), new Vector(0, 0, -1));
+            assertNotNull(polygon.findIntersections(ray), "Point should be in the polygon");
+            assertEquals(1, triangles.stream().filter(t -> t.findIntersections(ray) != null).count(),
+                    "Point should be in a single triangle");
+        }
     }
 }
@@ -150,5 +150,39 @@ class SphereTest {
                 "Ray's line is outside, ray is orthogonal to ray start to sphere's center line");
     }
 
+    /**
+     * Test method for {@link Sphere#findClosestT(Ray, double)} and {@link Sphere#isOccluding(Ray, double)}.
+     */
+    @Test
+    void testFindClosestT() {
+        Sphere sphere = new Sphere(1d, p100);
+        final Point p01 = new Point(-1, 0, 0);
+        final Vector v100 = new Vector(1, 0, 0);
 
-}
\ No newline at end of file
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts before and crosses the sphere - the nearer point
+        assertEquals(1, sphere.findClosestT(new Ray(p01, v100), Double.POSITIVE_INFINITY), DELTA,
+                "Wrong nearest intersection");
+        // TC02: Ray starts inside the sphere - the point ahead
+        assertEquals(0.5, sphere.findClosestT(new Ray(new Point(1.5, 0, 0), v100), Double.POSITIVE_INFINITY), DELTA,
+                "Wrong intersection from inside");
+        // TC03: Ray's line is out of the sphere
+        assertEquals(Intersectable.NO_INTERSECTION,
+                sphere.findClosestT(new Ray(p01, new Vector(1, 1, 0)), Double.POSITIVE_INFINITY),
+                "Ray's line out of sphere");
+        // TC04: The sphere is farther than the max distance
+        assertFalse(sphere.isOccluding(new Ray(p01, v100), 0.5), "Sphere is beyond max distance");
+        // TC05: The max distance is between the two points - only the nearer one is seen
+        assertTrue(sphere.isOccluding(new Ray(p01, v100), 2), "Sphere is before max distance");
+        assertEquals(new Point(0, 0, 0), sphere.findClosestIntersection(new Ray(p01, v100), 2).point,
+                "Wrong closest intersection point");
+
+        // =============== Boundary Values Tests ==================
+        // TC06: Ray starts at the center (1 point at the radius distance)
+        assertEquals(1, sphere.findClosestT(new Ray(p100, v100), Double.POSITIVE_INFINITY), DELTA,
+                "Ray starts at the center");
+        // TC07: Ray's line is tangent to the sphere
+        assertFalse(sphere.isOccluding(new Ray(new Point(0, 0, 1), v100), Double.POSITIVE_INFINITY),
+                "Ray is tangent to the sphere");
+    }
+}
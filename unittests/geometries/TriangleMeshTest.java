@@ -0,0 +1,106 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriangleMeshTest {
+
+    private final double DELTA = 0.00001;
+
+    /**
+     * Test method for {@link TriangleMesh#findGeoIntersectionsHelper(Ray, double)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Triangle triangle = new Triangle(new Point(0, 0, 1), new Point(0, 1, 0), new Point(1, 0, 0));
+        TriangleMesh mesh = new TriangleMesh(List.of(triangle));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray intersects the triangle - the point has the normal and the surface of the source triangle
+        var result = mesh.findGeoIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(-0.5, -1, -1)));
+        assertEquals(1, result.size(), "Wrong number of points");
+        assertEquals(1, triangle.getNormal(result.get(0).point).dotProduct(result.get(0).geometry.getNormal(null)),
+                DELTA, "Wrong normal of the intersection");
+        assertSame(triangle.getMaterial(), result.get(0).geometry.getMaterial(), "Wrong material of the intersection");
+        assertEquals(0, new Point(0.3, 0.1, 0.6).distance(result.get(0).point), DELTA, "Wrong intersection point");
+
+        // TC02: Ray outside against edge
+        assertNull(mesh.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(-2, -0.5, -1))),
+                "Ray outside against edge");
+
+        // TC03: Ray outside against vertex
+        assertNull(mesh.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(1, -0.5, -1))),
+                "Ray outside against vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: Ray on edge
+        assertNull(mesh.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(-0.5, -0.1, -0.4))),
+                "Ray on edge");
+
+        // TC05: Ray on vertex
+        assertNull(mesh.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(-0.5, 0.5, -1))),
+                "Ray on vertex");
+
+        // TC06: Ray on edge's continuation
+        assertNull(mesh.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(-0.5, -1, 0.5))),
+                "Ray on edge's continuation");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#findClosestGeoIntersectionHelper(Ray, double)}.
+     */
+    @Test
+    void testFindClosestIntersection() {
+        // a row of parallel triangles along the z axis, enough of them for several levels of the hierarchy
+        List<Triangle> triangles = new java.util.LinkedList<>();
+        for (int i = 1; i <= 20; ++i)
+            triangles.add(new Triangle(new Point(-1, -1, -i), new Point(1, -1, -i), new Point(0, 1, -i)));
+        TriangleMesh mesh = new TriangleMesh(triangles);
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the triangles are crossed
+        assertEquals(20, mesh.findGeoIntersections(ray).size(), "Wrong number of points");
+        // TC02: The closest is the first one
+        var closest = mesh.findClosestIntersection(ray);
+        assertEquals(-1, closest.point.getZ(), DELTA, "Wrong closest triangle");
+        // TC03: Max distance limits the intersections
+        assertEquals(5, mesh.findGeoIntersections(ray, 5.5).size(), "Wrong number of points before max distance");
+        // TC04: Ray misses all the triangles
+        assertFalse(mesh.hasIntersection(new Ray(new Point(5, 5, 0), new Vector(0, 0, -1)), 100),
+                "Ray misses the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: The nearest triangle is exactly at the max distance
+        assertFalse(mesh.hasIntersection(ray, 1), "Triangle at max distance");
+    }
+
+    /**
+     * Test method for {@link TriangleMesh#TriangleMesh(List, OffHeapArena)}.
+     */
+    @Test
+    void testOffHeap() {
+        Material material = new Material().setKd(0.5);
+        Triangle triangle = new Triangle(new Point(0, 0, 1), new Point(0, 1, 0), new Point(1, 0, 0));
+        triangle.setMaterial(material);
+        OffHeapArena arena = new OffHeapArena();
+        TriangleMesh mesh = new TriangleMesh(List.of(triangle), arena);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The found point carries the normal and the material of the stored triangle
+        var gp = mesh.findClosestIntersection(new Ray(new Point(0.5, 0.5, 1), new Vector(-0.5, -1, -1)));
+        assertEquals(0, new Point(0.3, 0.1, 0.6).distance(gp.point), DELTA, "Wrong intersection point");
+        assertEquals(1, triangle.getNormal(gp.point).dotProduct(gp.geometry.getNormal(gp.point)), DELTA,
+                "Wrong normal of the face");
+        assertSame(material, gp.geometry.getMaterial(), "Wrong material of the face");
+        // TC02: The mesh data is allocated from the arena
+        assertTrue(arena.allocatedBytes() > 0, "No off-heap memory is used");
+    }
+}
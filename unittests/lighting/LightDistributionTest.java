@@ -0,0 +1,49 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link LightDistribution}
+ */
+class LightDistributionTest {
+
+    /**
+     * Test method for {@link LightDistribution#sample(double)}.
+     */
+    @Test
+    void testSample() {
+        LightSource sun = new DirectionalLight(new Color(50, 50, 50), new Vector(0, 0, -1));
+        List<LightSource> lights = List.of(sun,
+                new PointLight(new Color(10, 0, 0), Point.ZERO),
+                new PointLight(new Color(0, 30, 0), Point.ZERO),
+                new SpotLight(new Color(0, 0, 60), Point.ZERO, new Vector(0, 0, -1)),
+                new PointLight(Color.BLACK, Point.ZERO));
+        LightDistribution distribution = new LightDistribution(lights);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The directional light is not sampled, and the black light is dropped
+        assertEquals(List.of(sun), distribution.getUnsampled(), "Wrong unsampled lights");
+        assertEquals(3, distribution.size(), "Wrong amount of sampled lights");
+        // TC02: The lights are chosen in proportion to their power
+        double[] expected = {0.1, 0.3, 0.6};
+        int[] counts = new int[3];
+        final int count = 100000;
+        for (int i = 0; i < count; ++i)
+            ++counts[distribution.sample((i + 0.5) / count)];
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(expected[i], distribution.pdf(i), 1e-12, "Wrong probability of light " + i);
+            assertEquals(expected[i], (double) counts[i] / count, 1e-3, "Wrong frequency of light " + i);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC03: A single light is always chosen
+        LightDistribution single = new LightDistribution(List.of(new PointLight(new Color(1, 1, 1), Point.ZERO)));
+        assertEquals(0, single.sample(0), "Wrong light at 0");
+        assertEquals(0, single.sample(0.999999), "Wrong light near 1");
+    }
+}
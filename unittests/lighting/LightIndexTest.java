@@ -0,0 +1,73 @@
+package lighting;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link LightIndex}
+ */
+class LightIndexTest {
+
+    /**
+     * Test method for {@link PointLight#getInfluenceRadius(double)}.
+     */
+    @Test
+    void testGetInfluenceRadius() {
+        Color intensity = new Color(100, 200, 50);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Quadratic attenuation - 1 + d^2 / 100 = 200 at d = sqrt(19900)
+        assertEquals(Math.sqrt(19900),
+                new PointLight(intensity, Point.ZERO, 1, 0, 0.01).getInfluenceRadius(1), 1e-9,
+                "Wrong quadratic radius");
+        // TC02: Linear attenuation - 1 + d / 10 = 200 at d = 1990
+        assertEquals(1990, new PointLight(intensity, Point.ZERO, 1, 0.1, 0).getInfluenceRadius(1), 1e-9,
+                "Wrong linear radius");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: No attenuation
+        assertEquals(Double.POSITIVE_INFINITY, new PointLight(intensity, Point.ZERO).getInfluenceRadius(1),
+                "Wrong radius without attenuation");
+        // TC04: A light weaker than the threshold
+        assertEquals(0, new PointLight(intensity, Point.ZERO).getInfluenceRadius(500), "Wrong radius of weak light");
+        // TC05: Directional light
+        assertEquals(Double.POSITIVE_INFINITY,
+                new DirectionalLight(intensity, new Vector(0, 0, -1)).getInfluenceRadius(1),
+                "Wrong radius of directional light");
+    }
+
+    /**
+     * Test method for {@link LightIndex#getLights(Point)}.
+     */
+    @Test
+    void testGetLights() {
+        // lights of influence radius 100 along the x axis, and a directional light
+        Color intensity = new Color(101, 101, 101);
+        LightSource sun = new DirectionalLight(intensity, new Vector(0, 0, -1));
+        LightSource first = new PointLight(intensity, Point.ZERO, 1, 1, 0);
+        LightSource second = new SpotLight(intensity, new Point(150, 0, 0), new Vector(0, 0, -1)).setKL(1);
+        LightSource third = new PointLight(intensity, new Point(1000, 0, 0), 1, 1, 0);
+        LightIndex index = new LightIndex(List.of(sun, first, second, third), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A point in the influence of two lights
+        List<LightSource> lights = index.getLights(new Point(75, 0, 0));
+        assertTrue(lights.containsAll(List.of(sun, first, second)), "Missing lights");
+        assertFalse(lights.contains(third), "Far light is not culled");
+        // TC02: A point in the influence of a single light
+        lights = index.getLights(new Point(1000, 50, 0));
+        assertTrue(lights.containsAll(List.of(sun, third)), "Missing lights");
+        assertFalse(lights.contains(first) || lights.contains(second), "Far lights are not culled");
+        // TC03: A point out of the influence of all the point lights
+        assertEquals(List.of(sun), index.getLights(new Point(0, 0, 5000)), "Wrong lights far away");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: No lights with a limited influence
+        assertEquals(List.of(sun), new LightIndex(List.of(sun), 1).getLights(Point.ZERO), "Wrong unbounded lights");
+        // TC05: Threshold must be positive
+        assertThrows(IllegalArgumentException.class, () -> new LightIndex(List.of(sun), 0), "Zero threshold");
+    }
+}
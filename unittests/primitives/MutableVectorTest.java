@@ -0,0 +1,43 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableVectorTest {
+    public static final double DELTA = 0.00001;
+
+    /**
+     * Test method for {@link MutableVector#reflect(Vector)} and {@link MutableVector#normalize()}.
+     */
+    @Test
+    void testReflect() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Reflection by a normal gives the same result as the immutable calculation
+        Vector l = new Vector(1, -1, 2);
+        Vector n = new Vector(0, 0, 1);
+        Vector expected = l.subtract(n.scale(2 * l.dotProduct(n))).normalize();
+        MutableVector r = new MutableVector().set(l).reflect(n).normalize();
+        assertEquals(expected, r.toVector(), "Wrong reflected vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: Normalizing a zero vector
+        assertThrows(IllegalArgumentException.class, () -> new MutableVector().normalize(),
+                "Normalized a zero vector");
+    }
+
+    /**
+     * Test method for {@link ColorAccumulator#add(Color, Double3, Double3, double)}.
+     */
+    @Test
+    void testColorAccumulator() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Accumulation gives the same result as the immutable calculation
+        Color light = new Color(100, 50, 20);
+        Double3 kd = new Double3(0.5, 0.2, 1);
+        Double3 ktr = new Double3(1, 0.5, 0.5);
+        Color expected = light.add(light.scale(ktr).scale(kd).scale(0.3));
+        assertEquals(expected, new ColorAccumulator().add(light).add(light, ktr, kd, 0.3).toColor(),
+                "Wrong accumulated color");
+    }
+}
@@ -23,6 +23,23 @@ class RayTest {
         assertEquals(p1, ray.getPoint(0), "Didn't work for t=0");
     }
 
+    @Test
+    void testInverseDirection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Inverse and signs of an oblique direction
+        Ray ray = new Ray(new Point(1, 2, 3), new Vector(3, -4, 0));
+        assertEquals(1 / 0.6, ray.getInverseX(), 1e-10, "Wrong inverse x");
+        assertEquals(-1 / 0.8, ray.getInverseY(), 1e-10, "Wrong inverse y");
+        assertFalse(ray.isNegativeX(), "Wrong sign of x");
+        assertTrue(ray.isNegativeY(), "Wrong sign of y");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Zero component has an infinite inverse
+        assertTrue(Double.isInfinite(ray.getInverseZ()), "Inverse of zero should be infinite");
+        assertEquals(Double.POSITIVE_INFINITY, new Ray(Point.ZERO, new Vector(0, 1, 0)).getInverseX(),
+                "Inverse of zero should be infinite");
+    }
+
     @Test
     public void testFindClosestPoint() {
         Ray ray = new Ray(new Point(0, 0, 0), new Vector(1, 0, 0));
@@ -1,9 +1,16 @@
 package renderer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.Sphere;
 import primitives.*;
 import scene.Scene;
 //import scene.Scene;
@@ -63,4 +70,128 @@ class CameraTest {
 
    }
 
+   /**
+    * Test method for {@link Camera.Builder#setTileListener(TileListener)} and
+    * {@link TileFileWriter#tileRendered(Tile, float[])}.
+    */
+   @Test
+   void testRenderTiles() throws IOException {
+      Scene scene = new Scene("Tiles").setBackground(new Color(20, 40, 60));
+      scene.geometries.add(new Sphere(3d, new Point(0, 0, -20)).setEmission(new Color(300, 100, 0)));
+      Camera.Builder builder = Camera.getBuilder()
+         .setRayTracer(new SimpleRayTracer(scene))
+         .setLocation(Point.ZERO)
+         .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+         .setVpDistance(10).setVpSize(10, 6);
+      ImageWriter byPixels = new ImageWriter("pixels", 50, 30);
+      builder.setImageWriter(byPixels).build().renderImage();
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: Tiles (clipped at the right and the bottom) give the same image as rendering pixel by pixel,
+      // and the streamed file has the image
+      Path path = Files.createTempFile("tiles", ".ppm");
+      ImageWriter byTiles = new ImageWriter("tiles", 50, 30);
+      try (TileFileWriter writer = new TileFileWriter(path, 50, 30, TileFileWriter.Format.PPM)) {
+         builder.setImageWriter(byTiles).setTileSize(16).setTileListener(writer).setMultithreading(2)
+            .build().renderImage();
+      }
+      byte[] file = Files.readAllBytes(path);
+      Files.delete(path);
+      int header = "P6\n50 30\n255\n".length();
+      assertEquals(header + 50 * 30 * 3, file.length, "Wrong file size");
+      for (int y = 0; y < 30; ++y)
+         for (int x = 0; x < 50; ++x) {
+            Color expected = byPixels.getFramebuffer().getPixel(x, y);
+            assertEquals(expected, byTiles.getFramebuffer().getPixel(x, y), "Wrong pixel " + x + "," + y);
+            int rgb = byPixels.getFramebuffer().toImage().getRGB(x, y);
+            int i = header + (y * 50 + x) * 3;
+            assertEquals(rgb & 0xFFFFFF, (file[i] & 0xFF) << 16 | (file[i + 1] & 0xFF) << 8 | file[i + 2] & 0xFF,
+               "Wrong streamed pixel " + x + "," + y);
+         }
+
+      // =============== Boundary Values Tests ==================
+      // TC02: The image can not be written when it is not kept
+      Camera streamOnly = builder.setKeepImage(false).build();
+      assertThrows(UnsupportedOperationException.class, streamOnly::writeToImage, "Wrote image which is not kept");
+   }
+
+   /**
+    * Test method for {@link Camera.Builder#setCheckpoint(Path, double, boolean)}.
+    */
+   @Test
+   void testCheckpoint() throws IOException {
+      Path path = Files.createTempFile("render", ".checkpoint");
+      // an interrupted render - only the first tile (of 3 x 2 tiles) is completed
+      try (RenderCheckpoint checkpoint = new RenderCheckpoint(path, 10, 6, 4, 60, false)) {
+         float[] rgb = new float[4 * 4 * 3];
+         Arrays.fill(rgb, 7f);
+         checkpoint.tileRendered(new Tile(0, 0, 4, 4), rgb);
+      }
+      ImageWriter imageWriter = new ImageWriter("resumed", 10, 6);
+      Camera.Builder builder = Camera.getBuilder()
+         .setRayTracer(new RayTracerBase(new Scene("Checkpoint")) {
+            @Override
+            public Color traceRay(Ray ray) {
+               return new Color(100, 0, 0);
+            }
+         })
+         .setImageWriter(imageWriter)
+         .setLocation(Point.ZERO)
+         .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+         .setVpDistance(10).setVpSize(10, 6);
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: The resumed render skips the completed tile and renders the rest
+      builder.setTileSize(4).setCheckpoint(path, 60, true).build().renderImage();
+      assertEquals(new Color(7, 7, 7), imageWriter.getFramebuffer().getPixel(3, 3), "Completed tile is rendered");
+      assertEquals(new Color(100, 0, 0), imageWriter.getFramebuffer().getPixel(4, 3), "Tile is not rendered");
+      assertEquals(new Color(100, 0, 0), imageWriter.getFramebuffer().getPixel(9, 5), "Tile is not rendered");
+      // TC02: All the tiles are completed in the checkpoint after the render
+      try (RenderCheckpoint checkpoint = new RenderCheckpoint(path, 10, 6, 4, 60, true)) {
+         assertEquals(6, checkpoint.completedTiles(), "Wrong amount of completed tiles");
+      }
+
+      // =============== Boundary Values Tests ==================
+      // TC03: A new checkpoint does not resume
+      try (RenderCheckpoint checkpoint = new RenderCheckpoint(path, 10, 6, 4, 60, false)) {
+         assertEquals(0, checkpoint.completedTiles(), "New checkpoint has completed tiles");
+      }
+      Files.delete(path);
+   }
+
+   /**
+    * Test method for {@link Camera.Builder#setProgressive(int, boolean)}.
+    */
+   @Test
+   void testProgressive() {
+      ImageWriter imageWriter = new ImageWriter("progressive", 10, 6);
+      Camera.Builder builder = Camera.getBuilder()
+         .setRayTracer(new RayTracerBase(new Scene("Progressive")) {
+            @Override
+            public Color traceRay(Ray ray) {
+               return new Color(SampleRandom.nextDouble() * 300, 0, 0);
+            }
+         })
+         .setImageWriter(imageWriter)
+         .setLocation(Point.ZERO)
+         .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+         .setVpDistance(10).setVpSize(10, 6);
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: Every pixel is the average of the different samples of the passes
+      builder.setProgressive(4, false).setMultithreading(2).build().renderImage();
+      for (int y = 0; y < 6; ++y)
+         for (int x = 0; x < 10; ++x) {
+            double expected = 0;
+            for (int pass = 0; pass < 4; ++pass)
+               expected += SampleRandom.uniform(y * 10 + x, pass * 2, 0) * 300 / 4;
+            assertEquals(expected, imageWriter.getFramebuffer().getPixel(x, y).getRed(), 1e-3,
+               "Wrong pixel " + x + "," + y);
+         }
+
+      // =============== Boundary Values Tests ==================
+      // TC02: Progressive passes are not supported by tiles
+      assertThrows(IllegalArgumentException.class, () -> builder.setTileSize(4).build(),
+         "Progressive passes by tiles");
+   }
 }
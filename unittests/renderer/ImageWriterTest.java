@@ -3,6 +3,16 @@ package renderer;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Deflater;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ImageWriterTest {
@@ -43,4 +53,109 @@ class ImageWriterTest {
         imageWriter.writeToImage();
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link Framebuffer#setPixel(int, int, Color)} and {@link Framebuffer#toImage()}.
+     */
+    @Test
+    void testFramebuffer() {
+        Framebuffer framebuffer = new ImageWriter("framebuffer", 2, 1).getFramebuffer();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The framebuffer keeps the color beyond the printed range
+        framebuffer.setPixel(1, 0, new Color(300, 100, 20));
+        assertEquals(new Color(300, 100, 20), framebuffer.getPixel(1, 0), "Wrong color of the pixel");
+        // TC02: The image is clamped to the printed range
+        assertEquals(new java.awt.Color(255, 100, 20).getRGB() & 0xFFFFFF,
+                framebuffer.toImage().getRGB(1, 0) & 0xFFFFFF, "Wrong color of the image pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: Untouched pixel is black
+        assertEquals(0, framebuffer.toImage().getRGB(0, 0) & 0xFFFFFF, "Untouched pixel is not black");
+    }
+
+    /**
+     * Test method for {@link PngEncoder#write(Framebuffer, Path)}.
+     */
+    @Test
+    void testPngEncoder() throws IOException {
+        // enough rows for several strips, with gradients and noise for all the filter types
+        Framebuffer framebuffer = new Framebuffer(300, 1000);
+        Random random = new Random(1);
+        for (int y = 0; y < 1000; ++y)
+            for (int x = 0; x < 300; ++x)
+                framebuffer.setPixel(x, y, x < 150
+                        ? new Color(x, y % 256, (x + y) % 300)
+                        : new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+        Path path = Files.createTempFile("encoder", ".png");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The image is decoded back to the same pixels
+        new PngEncoder(Deflater.DEFAULT_COMPRESSION, 3).write(framebuffer, path);
+        BufferedImage expected = framebuffer.toImage();
+        BufferedImage actual = ImageIO.read(path.toFile());
+        Files.delete(path);
+        assertEquals(300, actual.getWidth(), "Wrong width");
+        assertEquals(1000, actual.getHeight(), "Wrong height");
+        for (int y = 0; y < 1000; ++y)
+            for (int x = 0; x < 300; ++x)
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Wrong pixel " + x + "," + y);
+    }
+
+    /**
+     * Test method for {@link HdrImageIO#writePfm(Framebuffer, Path)}, {@link HdrImageIO#readPfm(Path)}
+     * and {@link HdrImageIO#writeExr(Framebuffer, Path)}.
+     */
+    @Test
+    void testHdrImageIO() throws IOException {
+        Framebuffer framebuffer = new Framebuffer(3, 2);
+        framebuffer.setPixel(0, 0, new Color(1000, 0.5, 255));
+        framebuffer.setPixel(2, 1, new Color(10, 20, 30));
+        Path path = Files.createTempFile("hdr", ".pfm");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: PFM keeps the colors beyond the printed range, and the rows order
+        HdrImageIO.writePfm(framebuffer, path);
+        Framebuffer read = HdrImageIO.readPfm(path);
+        assertEquals(3, read.getWidth(), "Wrong width");
+        assertEquals(2, read.getHeight(), "Wrong height");
+        assertArrayEquals(framebuffer.getData(), read.getData(), 0.001f, "Wrong pixels");
+
+        // TC02: EXR has the magic number and the size of the header, the offsets and the lines
+        HdrImageIO.writeExr(framebuffer, path);
+        byte[] exr = Files.readAllBytes(path);
+        Files.delete(path);
+        assertEquals(20000630, exr[0] & 0xFF | (exr[1] & 0xFF) << 8 | (exr[2] & 0xFF) << 16 | exr[3] << 24,
+                "Wrong EXR magic number");
+        int lines = 2 * (8 + 3 * 3 * 4);
+        assertEquals(1000 / 255f, ByteBuffer.wrap(exr, exr.length - lines + 8 + 2 * 3 * 4, 4)
+                .order(ByteOrder.LITTLE_ENDIAN).getFloat(), 0.0001f, "Wrong red channel");
+    }
+
+    /**
+     * Test method for {@link ToneMapper#apply(Framebuffer)}.
+     */
+    @Test
+    void testToneMapper() {
+        Framebuffer framebuffer = new Framebuffer(2, 1);
+        framebuffer.setPixel(0, 0, new Color(255, 1000, 0));
+        framebuffer.setPixel(1, 0, new Color(100, 50, 10));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Reinhard maps the printed white to its half and keeps the bright colors below the white
+        Framebuffer reinhard = new ToneMapper(ToneMapper.Operator.REINHARD).apply(framebuffer);
+        assertEquals(127.5f, reinhard.getData()[0], 0.001f, "Wrong Reinhard white");
+        assertTrue(reinhard.getData()[1] < 255 && reinhard.getData()[1] > reinhard.getData()[0],
+                "Wrong Reinhard of a bright color");
+        // TC02: Exposure scales the colors before clamping
+        Framebuffer exposed = new ToneMapper(ToneMapper.Operator.CLAMP).setExposure(1).apply(framebuffer);
+        assertEquals(200f, exposed.getData()[3], 0.001f, "Wrong exposure");
+        assertEquals(255f, exposed.getData()[0], 0.001f, "Wrong clamping");
+        // TC03: ACES keeps the order of the colors in the printed range
+        Framebuffer aces = new ToneMapper(ToneMapper.Operator.ACES).apply(framebuffer);
+        assertTrue(aces.getData()[3] > aces.getData()[4] && aces.getData()[1] <= 255, "Wrong ACES curve");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: Black stays black
+        assertEquals(0f, aces.getData()[2], "Black is not black");
+    }
+}
@@ -0,0 +1,114 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.Plane;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link IrradianceCache}
+ */
+class IrradianceCacheTest {
+    /**
+     * A floor of the tests
+     */
+    private final Plane floor = (Plane) new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material());
+
+    /**
+     * Creates the shading values of a hit on the floor
+     *
+     * @param x         the x of the hit
+     * @param y         the y of the hit
+     * @param direction the direction of the ray
+     * @return the shading values
+     */
+    private ShadingContext hit(double x, double y, Vector direction) {
+        return new ShadingContext(new GeoPoint(floor, new Point(x, y, 0)), new Ray(Point.ZERO, direction));
+    }
+
+    /**
+     * Test method for {@link IrradianceCache#lookup(ShadingContext)}.
+     */
+    @Test
+    void testLookup() {
+        Vector down = new Vector(0, 0, -1);
+        IrradianceCache cache = new IrradianceCache(10);
+        assertNull(cache.lookup(hit(0, 0, down)), "Empty cache has a record");
+        cache.insert(hit(0, 0, down), new Color(100, 0, 0));
+        cache.insert(hit(8, 0, down), new Color(0, 100, 0));
+        // far records grow the octree
+        cache.insert(hit(5000, -3000, down), new Color(0, 0, 100));
+        for (int i = 0; i < 50; ++i)
+            cache.insert(hit(-1000 + i * 0.5, 500, down), Color.BLACK);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A hit near a single record gets its color
+        assertEquals(new Color(100, 0, 0), cache.lookup(hit(-3, 0, down)), "Wrong color of a single record");
+        // TC02: A hit between records interpolates them, the closer record weighs more
+        Color color = cache.lookup(hit(5, 0, down));
+        assertTrue(color.getGreen() > color.getRed() && color.getRed() > 0, "Wrong interpolation " + color);
+        // TC03: A hit far from the records
+        assertNull(cache.lookup(hit(0, 50, down)), "Far record is used");
+        // TC04: A hit with another view direction
+        assertNull(cache.lookup(hit(0, 0, new Vector(1, 0, -1))), "Record of another direction is used");
+        // TC05: A record far away is found after the octree grew
+        assertEquals(new Color(0, 0, 100), cache.lookup(hit(5001, -3000, down)), "Far record is lost");
+
+        // =============== Boundary Values Tests ==================
+        // TC06: A hit of another material
+        ShadingContext other = new ShadingContext(
+                new GeoPoint(new Plane(Point.ZERO, new Vector(0, 0, 1)), Point.ZERO), new Ray(Point.ZERO, down));
+        assertNull(cache.lookup(other), "Record of another material is used");
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setIrradianceCache(double)}.
+     */
+    @Test
+    void testIrradianceCache() {
+        // a frosted glass pane in front of a colored ball
+        Scene scene = new Scene("Frosted glass");
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -50), new Vector(0, 0, 1))
+                        .setMaterial(new Material().setKt(0.8).setDiffuseness(30)),
+                new Sphere(40d, new Point(0, 0, -150)).setEmission(new Color(200, 100, 50)));
+        SimpleRayTracer plain = new SimpleRayTracer(scene).setBeamSize(64);
+        SimpleRayTracer cached = new SimpleRayTracer(scene).setBeamSize(64).setIrradianceCache(5);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The cached colors are close to the traced ones
+        for (int i = 0; i < 20; ++i) {
+            Ray ray = new Ray(new Point(i, 0, 0), new Vector(0, 0, -1));
+            SampleRandom.setPixel(i, 0);
+            Color expected = plain.traceRay(ray);
+            SampleRandom.setPixel(i, 0);
+            Color color = cached.traceRay(ray);
+            assertEquals(expected.getRed(), color.getRed(), 12, "Wrong cached red at " + i);
+            assertEquals(expected.getGreen(), color.getGreen(), 6, "Wrong cached green at " + i);
+        }
+
+        // TC02: A render does not use the records of the previous render
+        Camera.Builder builder = Camera.getBuilder()
+                .setRayTracer(cached)
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+                .setVpDistance(10).setVpSize(4, 4);
+        ImageWriter first = new ImageWriter("first", 20, 20);
+        ImageWriter second = new ImageWriter("second", 20, 20);
+        builder.setImageWriter(first).build().renderImage();
+        builder.setImageWriter(second).build().renderImage();
+        assertArrayEquals(first.getFramebuffer().getData(), second.getFramebuffer().getData(),
+                "Render depends on the previous render");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: Negative radius
+        assertThrows(IllegalArgumentException.class, () -> plain.setIrradianceCache(-1), "Negative radius");
+        // TC04: Progressive passes with a cache
+        assertThrows(IllegalArgumentException.class, () -> builder.setProgressive(2, false).build(),
+                "Progressive passes with a cache");
+    }
+}
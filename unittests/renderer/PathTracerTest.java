@@ -0,0 +1,47 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link PathTracer}
+ */
+class PathTracerTest {
+
+    /**
+     * Test method for {@link PathTracer#traceRay(Ray)}.
+     */
+    @Test
+    void testTraceRay() {
+        // a reflecting and refracting sphere in front of a wall, lit by a point light
+        Scene scene = new Scene("Paths").setBackground(new Color(20, 40, 60));
+        scene.geometries.add(
+                new Sphere(50d, new Point(0, 0, -200)).setEmission(new Color(30, 10, 10))
+                        .setMaterial(new Material().setKd(0.3).setKs(0.3).setShininess(30)
+                                .setKr(new Double3(0.4, 0.3, 0.2)).setKt(new Double3(0.2, 0.3, 0.4))),
+                new Plane(new Point(0, 0, -400), new Vector(0, 0, 1)).setEmission(new Color(10, 30, 10))
+                        .setMaterial(new Material().setKd(0.5).setKr(0.3)));
+        scene.lights.add(new PointLight(new Color(400, 300, 200), new Point(100, 100, 0)));
+        Ray ray = new Ray(Point.ZERO, new Vector(0.1, 0.05, -1));
+        Color expected = new SimpleRayTracer(scene).traceRay(ray);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The average of the single paths is the color of the branching recursion
+        PathTracer pathTracer = new PathTracer(scene);
+        SimpleRayTracerTest.assertMeanColor(pathTracer, ray, expected, 20000);
+
+        // TC02: A ray missing the scene gets the background
+        assertEquals(scene.background, pathTracer.traceRay(new Ray(Point.ZERO, new Vector(0, 0, 1))),
+                "Wrong background");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: Amount of samples must be positive
+        assertThrows(IllegalArgumentException.class, () -> pathTracer.setSamples(0), "Zero samples");
+    }
+}
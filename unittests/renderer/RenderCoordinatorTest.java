@@ -0,0 +1,130 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing distributed rendering by {@link RenderCoordinator} and {@link RenderWorker}
+ */
+class RenderCoordinatorTest {
+    /**
+     * Camera factory of the workers
+     */
+    public static class SphereFactory implements CameraFactory {
+        @Override
+        public Camera createCamera() {
+            Scene scene = new Scene("Distributed").setBackground(new Color(20, 40, 60));
+            scene.geometries.add(new Sphere(3d, new Point(0, 0, -20)).setEmission(new Color(300, 100, 0)));
+            return Camera.getBuilder()
+                    .setRayTracer(new SimpleRayTracer(scene))
+                    .setImageWriter(new ImageWriter("distributed", 50, 30))
+                    .setLocation(Point.ZERO)
+                    .setDirection(new Vector(0, 0, -1), new Vector(0, -1, 0))
+                    .setVpDistance(10).setVpSize(10, 6)
+                    .build();
+        }
+    }
+
+    /**
+     * Class path of the worker process - the locations of the renderer classes and of the test
+     * classes (the class path of the test may be a launcher jar only)
+     *
+     * @return the class path
+     * @throws Exception if a location is not a path
+     */
+    private static String workerClassPath() throws Exception {
+        return Path.of(RenderWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator
+                + Path.of(SphereFactory.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator + System.getProperty("java.class.path");
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render()}.
+     */
+    @Test
+    void testRender() throws Exception {
+        ImageWriter expected = new ImageWriter("expected", 50, 30);
+        Camera camera = new SphereFactory().createCamera();
+        float[] rgb = new float[50 * 30 * 3];
+        camera.renderTile(50, 30, new Tile(0, 0, 50, 30), rgb);
+        expected.getFramebuffer().setTile(new Tile(0, 0, 50, 30), rgb);
+
+        ImageWriter imageWriter = new ImageWriter("distributed", 50, 30);
+        RenderCoordinator coordinator = new RenderCoordinator(SphereFactory.class, imageWriter, 8, 0)
+                .setTimeout(2000);
+        int port = coordinator.getPort();
+        Thread render = new Thread(() -> {
+            try {
+                coordinator.render();
+            } catch (IOException ignore) {
+            }
+        });
+        render.start();
+
+        // a worker which takes a tile and fails
+        Thread failing = new Thread(() -> {
+            try (Socket socket = new Socket("localhost", port)) {
+                var in = new DataInputStream(socket.getInputStream());
+                in.readUTF();
+                in.readInt();
+                in.readInt();
+                for (int i = 0; i < 4; ++i) in.readInt();
+            } catch (IOException ignore) {
+            }
+        });
+        failing.start();
+        failing.join();
+        // a worker which takes a tile and hangs
+        Socket hung = new Socket("localhost", port);
+        var hungIn = new DataInputStream(hung.getInputStream());
+        hungIn.readUTF();
+        for (int i = 0; i < 6; ++i) hungIn.readInt();
+        // a worker process and a worker thread with two connections - the process may connect after the end
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", workerClassPath(), RenderWorker.class.getName(),
+                "localhost", String.valueOf(port), "1").inheritIO().start();
+        Thread worker = new Thread(() -> {
+            try {
+                new RenderWorker("localhost", port).run(2);
+            } catch (IOException ignore) {
+            }
+        });
+        worker.start();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The image of the workers is the image of the camera, including the tiles of the failed
+        // and the hung workers
+        boolean exited = process.waitFor(60, TimeUnit.SECONDS);
+        if (!exited) process.destroyForcibly();
+        assertTrue(exited, "Worker process hangs");
+        assertEquals(0, process.exitValue(), "Worker process failed");
+        render.join(60000);
+        worker.join(60000);
+        hung.close();
+        assertFalse(render.isAlive(), "Render hangs");
+        assertArrayEquals(expected.getFramebuffer().getData(), imageWriter.getFramebuffer().getData(),
+                "Wrong distributed image");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A render without workers fails after the timeout
+        RenderCoordinator alone = new RenderCoordinator(SphereFactory.class, new ImageWriter("alone", 50, 30), 8, 0)
+                .setTimeout(300);
+        assertThrows(IOException.class, alone::render, "Render without workers should fail");
+        // TC12: A worker of a finished render ends normally
+        assertDoesNotThrow(() -> new RenderWorker("localhost", port).run(1), "Late worker should end normally");
+    }
+}
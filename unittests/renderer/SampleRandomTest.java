@@ -0,0 +1,49 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the deterministic random numbers of {@link SampleRandom}
+ */
+class SampleRandomTest {
+
+    /**
+     * Test method for {@link SampleRandom#nextDouble()}.
+     */
+    @Test
+    void testNextDouble() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The sequence of a pixel sample is the stateless numbers of its dimensions
+        SampleRandom.setPixel(1234, 2);
+        double first = SampleRandom.nextDouble();
+        double second = SampleRandom.nextDouble();
+        assertEquals(SampleRandom.uniform(1234, 2, 0), first, "Wrong first number");
+        assertEquals(SampleRandom.uniform(1234, 2, 1), second, "Wrong second number");
+        assertNotEquals(first, second, "Same numbers of different dimensions");
+        assertNotEquals(first, SampleRandom.uniform(1234, 3, 0), "Same numbers of different samples");
+
+        // TC02: Another thread gets the same sequence for the same pixel sample
+        double[] other = new double[2];
+        Thread thread = new Thread(() -> {
+            SampleRandom.setPixel(1234, 2);
+            other[0] = SampleRandom.nextDouble();
+            other[1] = SampleRandom.nextDouble();
+        });
+        thread.start();
+        thread.join();
+        assertEquals(first, other[0], "Different sequence in another thread");
+        assertEquals(second, other[1], "Different sequence in another thread");
+
+        // TC03: The numbers are uniform in [0, 1)
+        double sum = 0;
+        int count = 100000;
+        for (int pixel = 0; pixel < count; ++pixel) {
+            double u = SampleRandom.uniform(pixel, 0, 0);
+            assertTrue(u >= 0 && u < 1, "Number out of range");
+            sum += u;
+        }
+        assertEquals(0.5, sum / count, 0.01, "Numbers are not uniform");
+    }
+}
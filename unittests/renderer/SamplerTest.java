@@ -0,0 +1,64 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the sample points generators of {@link Sampler}
+ */
+class SamplerTest {
+
+    /**
+     * Test method for {@link Sampler#generate(int, double[], double[])}.
+     */
+    @Test
+    void testGenerate() {
+        final int count = 16;
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the generators give points in the unit square, spread around its center
+        for (Sampler sampler : Sampler.values()) {
+            SampleRandom.setPixel(7, 0);
+            sampler.generate(count, xs, ys);
+            double sumX = 0;
+            double sumY = 0;
+            for (int i = 0; i < count; ++i) {
+                assertTrue(xs[i] >= 0 && xs[i] < 1 && ys[i] >= 0 && ys[i] < 1, sampler + " point out of the square");
+                sumX += xs[i];
+                sumY += ys[i];
+            }
+            assertEquals(0.5, sumX / count, 0.2, sampler + " points are not spread");
+            assertEquals(0.5, sumY / count, 0.2, sampler + " points are not spread");
+        }
+
+        // TC02: Stratified and Sobol points have a point in each cell of a 4 x 4 grid
+        for (Sampler sampler : new Sampler[] { Sampler.STRATIFIED, Sampler.SOBOL }) {
+            SampleRandom.setPixel(11, 0);
+            sampler.generate(count, xs, ys);
+            boolean[] cells = new boolean[count];
+            for (int i = 0; i < count; ++i)
+                cells[(int) (xs[i] * 4) + 4 * (int) (ys[i] * 4)] = true;
+            for (boolean cell : cells)
+                assertTrue(cell, sampler + " points are not stratified");
+        }
+
+        // TC03: Sobol points have a point in each cell of a 16 x 1 grid (elementary intervals)
+        SampleRandom.setPixel(13, 0);
+        Sampler.SOBOL.generate(count, xs, ys);
+        boolean[] columns = new boolean[count];
+        for (int i = 0; i < count; ++i)
+            columns[(int) (xs[i] * count)] = true;
+        for (boolean column : columns)
+            assertTrue(column, "Sobol points are not stratified by columns");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: A single point
+        for (Sampler sampler : Sampler.values()) {
+            sampler.generate(1, xs, ys);
+            assertTrue(xs[0] >= 0 && xs[0] < 1 && ys[0] >= 0 && ys[0] < 1, sampler + " point out of the square");
+        }
+    }
+}
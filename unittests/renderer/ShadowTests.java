@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import geometries.*;
 import lighting.AmbientLight;
+import lighting.RectangleLight;
 import lighting.SpotLight;
 import primitives.*;
 import renderer.*;
@@ -135,4 +136,28 @@ public class ShadowTests {
 
     }
 
+    /**
+     * Produce a picture of two triangles with a soft shadow of a sphere by a rectangle area light
+     */
+    @Test
+    public void trianglesSphereSoftShadow() {
+        scene.geometries.add(
+                new Triangle(new Point(-150, -150, -115), new Point(150, -150, -135),
+                        new Point(75, 75, -150)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(60)), //
+                new Triangle(new Point(-150, -150, -115), new Point(-70, 70, -140), new Point(75, 75, -150)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.3).setShininess(60)), //
+                new Sphere(30d, new Point(0, 0, -11)) //
+                        .setEmission(new Color(BLUE)) //
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)) //
+        );
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), 0.15));
+        scene.lights.add(
+                new RectangleLight(new Color(700, 400, 400), new Point(40, 40, 115),
+                        new Vector(40, 0, 0), new Vector(0, 40, 0)) //
+                        .setKL(4E-4).setKQ(2E-5));
+
+        camera.setImageWriter(new ImageWriter("shadowTrianglesSphereSoft", 600, 600))
+                .build().renderImage().writeToImage();
+    }
 }
@@ -0,0 +1,219 @@
+package renderer;
+
+import geometries.ClippedGeometry;
+import geometries.Intersectable;
+import geometries.Intersectable.Border;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.TriangleMesh;
+import geometries.Triangle;
+import lighting.DirectionalLight;
+import lighting.DiskLight;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing {@link SimpleRayTracer}
+ */
+class SimpleRayTracerTest {
+
+    /**
+     * Asserts that the average color of a ray traced with a sequence of pixel samples
+     * ({@link SampleRandom}) is the expected color, up to 2% in each component
+     *
+     * @param rayTracer the ray tracer
+     * @param ray       the ray
+     * @param expected  the expected average color
+     * @param count     amount of the samples
+     */
+    static void assertMeanColor(RayTracerBase rayTracer, Ray ray, Color expected, int count) {
+        double r = 0;
+        double g = 0;
+        double b = 0;
+        for (int i = 0; i < count; ++i) {
+            SampleRandom.setPixel(i, 0);
+            Color color = rayTracer.traceRay(ray);
+            r += color.getRed();
+            g += color.getGreen();
+            b += color.getBlue();
+        }
+        assertEquals(expected.getRed(), r / count, expected.getRed() * 0.02, "Wrong expected red");
+        assertEquals(expected.getGreen(), g / count, expected.getGreen() * 0.02, "Wrong expected green");
+        assertEquals(expected.getBlue(), b / count, expected.getBlue() * 0.02, "Wrong expected blue");
+    }
+
+    /**
+     * Test method for {@link RayTracerBase#setRussianRoulette(double)}.
+     */
+    @Test
+    void testRussianRoulette() {
+        // a ray bouncing inside a mirror sphere along its diameter
+        Scene scene = new Scene("Roulette");
+        scene.geometries.add(new Sphere(100d, Point.ZERO).setEmission(new Color(10, 20, 30))
+                .setMaterial(new Material().setKr(new Double3(0.7, 0.5, 0.3))));
+        Ray ray = new Ray(Point.ZERO, new Vector(1, 0, 0));
+        Color expected = new SimpleRayTracer(scene).traceRay(ray);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The average of the paths terminated by the roulette is the color without the roulette
+        assertMeanColor(new SimpleRayTracer(scene).setRussianRoulette(0.5), ray, expected, 20000);
+
+        // =============== Boundary Values Tests ==================
+        // TC02: Threshold out of range
+        assertThrows(IllegalArgumentException.class, () -> new SimpleRayTracer(scene).setRussianRoulette(2),
+                "Threshold bigger than 1");
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setShadowBeamSize(int)} with an area light.
+     */
+    @Test
+    void testAreaLight() {
+        // a floor lit by a disk light above it, with a small ball casting a shadow under the light
+        Scene scene = new Scene("Area light");
+        Material floor = new Material().setKd(1);
+        scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(floor),
+                new Sphere(5d, new Point(0, 0, 50)));
+        scene.lights.add(new DiskLight(new Color(100, 100, 100), new Point(0, 0, 100), new Vector(0, 0, -1), 20));
+        Scene pointScene = new Scene("Point light");
+        pointScene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(floor));
+        pointScene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        SimpleRayTracer rayTracer = new SimpleRayTracer(scene).setShadowBeamSize(64);
+        SimpleRayTracer pointRayTracer = new SimpleRayTracer(pointScene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A fully lit point is lit as by a point light at the center of the light
+        Ray lit = new Ray(new Point(100, 0, 10), new Vector(0, 0, -1));
+        assertEquals(pointRayTracer.traceRay(lit), rayTracer.traceRay(lit), "Wrong fully lit point");
+        // TC02: A point in the penumbra is partially lit
+        Ray penumbra = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        SampleRandom.setPixel(0, 0);
+        double red = rayTracer.traceRay(penumbra).getRed();
+        double full = pointRayTracer.traceRay(penumbra).getRed();
+        assertTrue(red > 0.5 * full && red < full, "Wrong penumbra " + red + " of " + full);
+
+        // =============== Boundary Values Tests ==================
+        // TC03: A point in the umbra of a big ball is not lit
+        scene.geometries.add(new Sphere(30d, new Point(0, 0, 50)));
+        Ray umbra = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        assertEquals(Color.BLACK, rayTracer.traceRay(umbra), "Wrong umbra");
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setLightSamples(int)}.
+     */
+    @Test
+    void testLightSamples() {
+        // a floor lit by a grid of point lights of different powers and by a directional light
+        Scene scene = new Scene("Many lights");
+        scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1))
+                .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(20)));
+        scene.lights.add(new DirectionalLight(new Color(20, 20, 20), new Vector(1, 1, -1)));
+        for (int i = 0; i < 8; ++i)
+            for (int j = 0; j < 8; ++j)
+                scene.lights.add(new PointLight(new Color(10 + 5 * i, 10 + 5 * j, 30),
+                        new Point(20 * i - 70, 20 * j - 70, 50)).setKL(0.01));
+        Ray ray = new Ray(new Point(10, 0, 100), new Vector(0, 0.2, -1));
+        Color expected = new SimpleRayTracer(scene).traceRay(ray);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The average of the colors by a few sampled lights is the color by all the lights
+        assertMeanColor(new SimpleRayTracer(scene).setLightSamples(4), ray, expected, 20000);
+
+        // =============== Boundary Values Tests ==================
+        // TC02: More samples than lights evaluate all the lights
+        assertEquals(expected, new SimpleRayTracer(scene).setLightSamples(100).traceRay(ray), "Wrong color");
+    }
+
+    /**
+     * Test method for the shadow occluder cache of {@link SimpleRayTracer#traceRay(Ray)}.
+     */
+    @Test
+    void testShadowCache() {
+        // a floor lit by a point light, shadowed by two balls
+        Scene scene = new Scene("Shadow cache");
+        scene.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(1)),
+                new Sphere(10d, new Point(-50, 0, 50)), new Sphere(10d, new Point(50, 0, 50)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        SimpleRayTracer rayTracer = new SimpleRayTracer(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The colors do not depend on the occluders of the previous shadow rays
+        double[] xs = {-100, -99, 0, 100, 99, -100};
+        for (double x : xs) {
+            Ray ray = new Ray(new Point(x, 0, 10), new Vector(0, 0, -1));
+            assertEquals(new SimpleRayTracer(scene).traceRay(ray), rayTracer.traceRay(ray), "Wrong color at " + x);
+        }
+        Ray shadowed = new Ray(new Point(-100, 0, 10), new Vector(0, 0, -1));
+        assertEquals(Color.BLACK, rayTracer.traceRay(shadowed), "Point is not shadowed");
+    }
+
+    /**
+     * Test method for the shadow occluder cache of {@link SimpleRayTracer#traceRay(Ray)} with occluders
+     * found by wrapping intersectables - a clipped plane and an off-heap triangle mesh.
+     */
+    @Test
+    void testShadowCacheWrappers() {
+        // a floor lit by a point light, shadowed by a plane clipped to a small box
+        Scene clipped = new Scene("Clipped occluder");
+        clipped.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(1)),
+                new ClippedGeometry(new Plane(new Point(0, 0, 50), new Vector(0, 0, 1)),
+                        new Border(-60, -10, 49, -40, 10, 51)));
+        clipped.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        // a floor lit by a point light, shadowed by two triangles of an off-heap mesh
+        Scene mesh = new Scene("Mesh occluder");
+        mesh.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(1)),
+                new Triangle(new Point(-60, -10, 50), new Point(-40, -10, 50), new Point(-50, 10, 50)),
+                new Triangle(new Point(40, -10, 50), new Point(60, -10, 50), new Point(50, 10, 50)));
+        mesh.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        mesh.setOffHeap();
+        Ray down = new Ray(new Point(-50, 0, 100), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A hit of a clipped plane is found by the clipped plane
+        assertTrue(clipped.geometries.findClosestIntersection(down).intersectable instanceof ClippedGeometry,
+                "Wrong intersectable of a clipped hit");
+        // TC02: A hit of a mesh is found again by its own triangle only
+        Intersectable face = mesh.geometries.findClosestIntersection(down).intersectable;
+        assertFalse(face instanceof TriangleMesh, "Wrong intersectable of a mesh hit");
+        assertTrue(face.hasIntersection(down, Double.POSITIVE_INFINITY), "Triangle of a mesh hit is lost");
+        assertFalse(face.hasIntersection(new Ray(new Point(50, 0, 100), new Vector(0, 0, -1)),
+                Double.POSITIVE_INFINITY), "Another triangle of the mesh is found");
+        // TC03: The shadow of a clipped plane ends at its box, after a shadow ray cached it
+        SimpleRayTracer clippedTracer = new SimpleRayTracer(clipped);
+        Ray shadowed = new Ray(new Point(-100, 0, 10), new Vector(0, 0, -1));
+        Ray lit = new Ray(new Point(100, 0, 10), new Vector(0, 0, -1));
+        assertEquals(Color.BLACK, clippedTracer.traceRay(shadowed), "Point is not shadowed");
+        assertEquals(new SimpleRayTracer(clipped).traceRay(lit), clippedTracer.traceRay(lit), "False shadow");
+        assertNotEquals(Color.BLACK, clippedTracer.traceRay(lit), "False shadow");
+        // TC04: The colors of a floor shadowed by a mesh do not depend on the previous shadow rays
+        SimpleRayTracer meshTracer = new SimpleRayTracer(mesh);
+        double[] xs = {-100, 100, 0, -99, 99, 30};
+        for (double x : xs) {
+            Ray ray = new Ray(new Point(x, 0, 10), new Vector(0, 0, -1));
+            assertEquals(new SimpleRayTracer(mesh).traceRay(ray), meshTracer.traceRay(ray), "Wrong color at " + x);
+        }
+        assertEquals(Color.BLACK, meshTracer.traceRay(shadowed), "Point is not shadowed");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: A mesh of an opaque and a glass triangle - a cached opaque triangle does not shadow
+        // the points behind the glass one
+        Scene mixed = new Scene("Mixed mesh occluder");
+        mixed.geometries.add(new Plane(Point.ZERO, new Vector(0, 0, 1)).setMaterial(new Material().setKd(1)),
+                new Triangle(new Point(-60, -10, 50), new Point(-40, -10, 50), new Point(-50, 10, 50)),
+                new Triangle(new Point(40, -10, 50), new Point(60, -10, 50), new Point(50, 10, 50))
+                        .setMaterial(new Material().setKt(1)));
+        mixed.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        mixed.setFloatPrecision();
+        SimpleRayTracer mixedTracer = new SimpleRayTracer(mixed);
+        Ray glass = new Ray(new Point(100, 0, 10), new Vector(0, 0, -1));
+        Color cold = new SimpleRayTracer(mixed).traceRay(glass);
+        assertEquals(Color.BLACK, mixedTracer.traceRay(shadowed), "Point is not shadowed");
+        assertEquals(cold, mixedTracer.traceRay(glass), "False shadow of a glass triangle");
+        assertNotEquals(Color.BLACK, cold, "Glass triangle is opaque");
+    }
+}